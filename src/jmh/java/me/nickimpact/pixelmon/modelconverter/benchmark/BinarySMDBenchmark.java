@@ -0,0 +1,32 @@
+package me.nickimpact.pixelmon.modelconverter.benchmark;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.BinarySMD;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+public class BinarySMDBenchmark {
+
+    /**
+     * Optimizing strips keyframes from the model in place, so each invocation is handed a fresh copy.
+     */
+    @State(Scope.Thread)
+    public static class Fresh {
+
+        public SMDFile model;
+
+        @Setup(Level.Invocation)
+        public void setup(ModelState state) {
+            this.model = ModelState.generate(state.bones, state.keyframes, state.triangles);
+        }
+    }
+
+    @Benchmark
+    public SMDFile optimize(Fresh fresh) {
+        BinarySMD.optimize(fresh.model);
+        return fresh.model;
+    }
+}
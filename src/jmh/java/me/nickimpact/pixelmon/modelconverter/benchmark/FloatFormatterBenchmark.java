@@ -0,0 +1,47 @@
+package me.nickimpact.pixelmon.modelconverter.benchmark;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.FloatFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Formats values of the magnitudes found in models with six decimals, as every text SMD is written.
+ */
+@State(Scope.Thread)
+public class FloatFormatterBenchmark {
+
+    private final byte[] buffer = new byte[FloatFormatter.MAX_LENGTH];
+    private float[] values;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        this.values = new float[4096];
+        for(int i = 0; i < this.values.length; i++) {
+            this.values[i] = (random.nextFloat() * 2 - 1) * (float) Math.pow(10, random.nextInt(4));
+        }
+    }
+
+    @Benchmark
+    public int jdk() {
+        int length = 0;
+        for(float value : this.values) {
+            length += String.format(Locale.ENGLISH, "%.6f", value).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int bytes() {
+        int length = 0;
+        for(float value : this.values) {
+            length += FloatFormatter.write(value, 6, this.buffer, 0);
+        }
+        return length;
+    }
+}
@@ -0,0 +1,64 @@
+package me.nickimpact.pixelmon.modelconverter.benchmark;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.FloatParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Parses the same numbers an SMD file is made of, as written by {@code %.6f}.
+ */
+@State(Scope.Benchmark)
+public class FloatParserBenchmark {
+
+    private String[] text;
+    private byte[] data;
+    private int[] bounds;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        StringBuilder data = new StringBuilder();
+        this.text = new String[4096];
+        this.bounds = new int[this.text.length + 1];
+        for(int i = 0; i < this.text.length; i++) {
+            this.text[i] = String.format(Locale.ROOT, "%.6f", (random.nextFloat() * 2 - 1) * Math.pow(10, random.nextInt(4)));
+            this.bounds[i] = data.length();
+            data.append(this.text[i]);
+        }
+        this.bounds[this.text.length] = data.length();
+        this.data = data.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public float jdk() {
+        float sum = 0;
+        for(String number : this.text) {
+            sum += Float.parseFloat(number);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float text() {
+        float sum = 0;
+        for(String number : this.text) {
+            sum += FloatParser.parse(number);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float bytes() {
+        float sum = 0;
+        for(int i = 0; i < this.text.length; i++) {
+            sum += FloatParser.parse(this.data, this.bounds[i], this.bounds[i + 1]);
+        }
+        return sum;
+    }
+}
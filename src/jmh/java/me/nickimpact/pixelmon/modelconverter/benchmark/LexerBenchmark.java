@@ -0,0 +1,18 @@
+package me.nickimpact.pixelmon.modelconverter.benchmark;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.Lexer;
+import org.openjdk.jmh.annotations.Benchmark;
+
+public class LexerBenchmark {
+
+    @Benchmark
+    public int lex(ModelState state) {
+        Lexer lexer = new Lexer(state.smd);
+        int tokens = 0;
+        while(!lexer.eof()) {
+            lexer.skip();
+            tokens++;
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,75 @@
+package me.nickimpact.pixelmon.modelconverter.benchmark;
+
+import me.nickimpact.pixelmon.modelconverter.ModelConverter;
+import me.nickimpact.pixelmon.modelconverter.corpus.ModelGenerator;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDBinaryWriter;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDTextWriter;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import me.nickimpact.pixelmon.modelconverter.reforged.BMDWriter;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A generated model in every format the converter handles, sized by the benchmark parameters.
+ */
+@State(Scope.Benchmark)
+public class ModelState {
+
+    @Param({"20", "80"})
+    public int bones;
+
+    @Param({"1", "60"})
+    public int keyframes;
+
+    @Param({"500", "5000"})
+    public int triangles;
+
+    public SMDFile model;
+    public String text;
+    public byte[] smd;
+    public byte[] smdx;
+    public byte[] smdxPacked;
+    public byte[] smdxIndexed;
+    public byte[] bmd;
+
+    @Setup
+    public void setup() throws IOException {
+        ModelConverter.debug = false;
+
+        this.model = generate(this.bones, this.keyframes, this.triangles);
+        this.text = new SMDTextWriter().write(this.model);
+        this.smd = this.text.getBytes(StandardCharsets.UTF_8);
+
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        new SMDBinaryWriter().write(this.model, packer);
+        this.smdx = packer.toByteArray();
+
+        packer = MessagePack.newDefaultBufferPacker();
+        new SMDBinaryWriter(SMDBinaryWriter.PACKED_VERSION).write(this.model, packer);
+        this.smdxPacked = packer.toByteArray();
+
+        packer = MessagePack.newDefaultBufferPacker();
+        new SMDBinaryWriter(SMDBinaryWriter.INDEXED_VERSION).write(this.model, packer);
+        this.smdxIndexed = packer.toByteArray();
+
+        ByteArrayOutputStream bmd = new ByteArrayOutputStream();
+        new BMDWriter().write(this.model, new DataOutputStream(bmd));
+        this.bmd = bmd.toByteArray();
+    }
+
+    /**
+     * @return A deterministic model of the given size, so results are comparable between runs
+     */
+    public static SMDFile generate(int bones, int keyframes, int triangles) {
+        return ModelGenerator.builder().bones(bones).keyframes(keyframes).triangles(triangles).build().model(0);
+    }
+}
@@ -0,0 +1,31 @@
+package me.nickimpact.pixelmon.modelconverter.benchmark;
+
+import me.nickimpact.pixelmon.modelconverter.Asset;
+import me.nickimpact.pixelmon.modelconverter.reforged.ReforgedTranslator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+@State(Scope.Thread)
+public class ReforgedBenchmark {
+
+    private final ReforgedTranslator.ReforgedDeserializer deserializer = new ReforgedTranslator.ReforgedDeserializer();
+    private final ReforgedTranslator.ReforgedSerializer serializer = new ReforgedTranslator.ReforgedSerializer();
+
+    @Benchmark
+    public byte[] decode(ModelState state) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(state.smd.length);
+        this.deserializer.translate(new Asset("model.bmd", state.bmd.length), new ByteArrayInputStream(state.bmd), output);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encode(ModelState state) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(state.bmd.length);
+        this.serializer.translate(new Asset("model.smd", state.smd.length), new ByteArrayInputStream(state.smd), output);
+        return output.toByteArray();
+    }
+}
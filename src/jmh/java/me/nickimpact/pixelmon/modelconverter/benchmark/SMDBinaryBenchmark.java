@@ -0,0 +1,45 @@
+package me.nickimpact.pixelmon.modelconverter.benchmark;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDBinaryIndex;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDBinaryReader;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDBinaryWriter;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.NodesBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class SMDBinaryBenchmark {
+
+    @Benchmark
+    public SMDFile read(ModelState state) throws IOException {
+        return new SMDBinaryReader().read(MessagePack.newDefaultUnpacker(state.smdx));
+    }
+
+    @Benchmark
+    public byte[] write(ModelState state) throws IOException {
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        new SMDBinaryWriter().write(state.model, packer);
+        return packer.toByteArray();
+    }
+
+    @Benchmark
+    public SMDFile readPacked(ModelState state) throws IOException {
+        return new SMDBinaryReader().read(MessagePack.newDefaultUnpacker(state.smdxPacked));
+    }
+
+    @Benchmark
+    public byte[] writePacked(ModelState state) throws IOException {
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        new SMDBinaryWriter(SMDBinaryWriter.PACKED_VERSION).write(state.model, packer);
+        return packer.toByteArray();
+    }
+
+    @Benchmark
+    public NodesBlock readNodesIndexed(ModelState state) throws IOException {
+        return SMDBinaryIndex.open(ByteBuffer.wrap(state.smdxIndexed)).getFirst(NodesBlock.class);
+    }
+}
@@ -0,0 +1,26 @@
+package me.nickimpact.pixelmon.modelconverter.benchmark;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDTextReader;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDTextWriter;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import org.openjdk.jmh.annotations.Benchmark;
+
+import java.io.ByteArrayInputStream;
+
+public class SMDTextBenchmark {
+
+    @Benchmark
+    public SMDFile read(ModelState state) {
+        return new SMDTextReader().read(state.text);
+    }
+
+    @Benchmark
+    public SMDFile readStream(ModelState state) {
+        return new SMDTextReader().read(new ByteArrayInputStream(state.smd));
+    }
+
+    @Benchmark
+    public String write(ModelState state) {
+        return new SMDTextWriter().write(state.model);
+    }
+}
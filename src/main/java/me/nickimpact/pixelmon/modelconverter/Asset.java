@@ -0,0 +1,54 @@
+package me.nickimpact.pixelmon.modelconverter;
+
+/**
+ * Describes a single asset being handed to a {@link Translator}, independent of whether it was read
+ * from a directory, a jar or anywhere else.
+ */
+public class Asset {
+
+    private final String name;
+    private final long size;
+    private long parsed = -1;
+
+    /**
+     * @param name The path of the asset relative to the root it was read from, separated by {@code /}
+     * @param size The size of the asset in bytes, or -1 if it is not known ahead of time
+     */
+    public Asset(String name, long size) {
+        this.name = name;
+        this.size = size;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public String getFileName() {
+        return this.name.substring(this.name.lastIndexOf('/') + 1);
+    }
+
+    public long getSize() {
+        return this.size;
+    }
+
+    /**
+     * Notes that the input has been fully parsed, and that the translator is moving on to encoding its
+     * output. Translators which parse and encode in a single pass need not call this, in which case all
+     * of their time is counted as encoding.
+     */
+    public void markParsed() {
+        this.parsed = System.nanoTime();
+    }
+
+    /**
+     * @return The {@link System#nanoTime()} at which {@link #markParsed()} was last called, or -1 if it never was
+     */
+    public long getParsedAt() {
+        return this.parsed;
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
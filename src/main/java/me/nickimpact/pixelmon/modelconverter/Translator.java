@@ -1,18 +1,68 @@
 package me.nickimpact.pixelmon.modelconverter;
 
-import java.io.File;
+import me.nickimpact.pixelmon.modelconverter.util.ByteBufferInputStream;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
 
+/**
+ * Translates model assets one at a time, from one stream to another. Finding the assets, deciding where
+ * the results go and writing them out is left to the caller, such as the drivers of the engine package.
+ */
 public interface Translator {
 
     List<String> getValidFileSuffixes();
 
-    void process(File directory, File output);
+    /**
+     * Gets the name a file will be written under once translated.
+     *
+     * @param name The name of the input file
+     * @return The name of the translated file
+     */
+    String getOutputName(String name);
+
+    /**
+     * Gets whether files with the given name are copied to the output unchanged, rather than translated.
+     *
+     * @param name The name of the input file
+     * @return True if the file is passed through as is
+     */
+    default boolean isPassthrough(String name) {
+        return false;
+    }
+
+    /**
+     * Translates a single asset from the given stream into the output stream. Neither stream is closed,
+     * and the output is flushed once the asset has been written. Assets which are passed through are
+     * copied as is.
+     *
+     * @param asset Describes the asset being translated
+     * @param input The asset to translate
+     * @param output The destination for the translated asset
+     * @throws Exception If the asset could not be translated
+     */
+    void translate(Asset asset, InputStream input, OutputStream output) throws Exception;
 
-    void process(JarFile file, JarEntry entry, File output);
+    /**
+     * Translates a single asset already held in memory, such as a mapped file or an inflated jar entry.
+     * Translators able to decode straight out of the buffer override this, while all others read the
+     * buffer as a stream. The position of the buffer is left untouched.
+     *
+     * @param asset Describes the asset being translated
+     * @param input The asset to translate, from its position to its limit
+     * @param output The destination for the translated asset
+     * @throws Exception If the asset could not be translated
+     */
+    default void translate(Asset asset, ByteBuffer input, OutputStream output) throws Exception {
+        this.translate(asset, new ByteBufferInputStream(input), output);
+    }
 
+    /**
+     * Marks translators which turn the binary formats shipped by the mods into something else, and so
+     * are able to read straight out of a mod jar.
+     */
     interface Deserializer extends Translator {}
 
     interface Serializer extends Translator {}
@@ -0,0 +1,162 @@
+package me.nickimpact.pixelmon.modelconverter.cli;
+
+import me.nickimpact.pixelmon.modelconverter.ModelConverter;
+import me.nickimpact.pixelmon.modelconverter.corpus.ModelGenerator;
+import me.nickimpact.pixelmon.modelconverter.harness.Scenario;
+import me.nickimpact.pixelmon.modelconverter.harness.ThroughputHarness;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static me.nickimpact.pixelmon.modelconverter.cli.HeadlessConverter.*;
+
+/**
+ * Measures end to end conversions over a generated corpus, writing one JSON line per run to stdout, or
+ * appending them to a file, so that results can be compared between commits.
+ */
+public class BenchmarkCommand {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: benchmark <workdir> [options]",
+            "",
+            "The corpus is generated into <workdir> on the first run, and reused while its settings are unchanged.",
+            "",
+            "Options:",
+            "  --species <count>      Number of species (default: 200)",
+            "  --animations <count>   Animations per species (default: 4)",
+            "  --triangles <count>    Triangles per model (default: 2000)",
+            "  --seed <seed>          Seed the corpus is derived from (default: 0)",
+            "  --scenarios <list>     Comma separated scenarios to run (default: all), out of",
+            "                         " + String.join(", ", ids()),
+            "  --threads <count>      Number of worker threads (default: " + ModelConverter.threads + ")",
+            "  --warmup <count>       Unrecorded runs of each scenario (default: 1)",
+            "  --iterations <count>   Recorded runs of each scenario (default: 3)",
+            "  --label <label>        Recorded with each result, such as the commit being measured",
+            "  --output <file>        Append results to the given file rather than writing them to stdout"
+    );
+
+    static int run(String[] args) {
+        PrintStream err = System.err;
+
+        Path workdir = null;
+        Path output = null;
+        ThroughputHarness.Builder harness = ThroughputHarness.builder();
+        ModelGenerator.Builder models = ModelGenerator.builder();
+
+        try {
+            for(int i = 0; i < args.length; i++) {
+                switch(args[i]) {
+                    case "--species":
+                        harness.species(Integer.parseInt(args[++i]));
+                        break;
+                    case "--animations":
+                        harness.animations(Integer.parseInt(args[++i]));
+                        break;
+                    case "--triangles":
+                        models.triangles(Integer.parseInt(args[++i]));
+                        break;
+                    case "--seed":
+                        harness.seed(Long.parseLong(args[++i]));
+                        break;
+                    case "--scenarios":
+                        List<Scenario> scenarios = new ArrayList<>();
+                        for(String scenario : args[++i].split(",")) {
+                            scenarios.add(Scenario.fromId(scenario.trim()));
+                        }
+                        harness.scenarios(scenarios.toArray(new Scenario[0]));
+                        break;
+                    case "--threads":
+                        harness.threads(Integer.parseInt(args[++i]));
+                        break;
+                    case "--warmup":
+                        harness.warmup(Integer.parseInt(args[++i]));
+                        break;
+                    case "--iterations":
+                        harness.iterations(Integer.parseInt(args[++i]));
+                        break;
+                    case "--label":
+                        harness.label(args[++i]);
+                        break;
+                    case "--output":
+                        output = Paths.get(args[++i]);
+                        break;
+                    case "--help":
+                    case "-h":
+                        err.println(USAGE);
+                        return EXIT_SUCCESS;
+                    default:
+                        if(args[i].startsWith("--") || workdir != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        workdir = Paths.get(args[i]);
+                }
+            }
+
+            if(workdir == null) {
+                throw new IllegalArgumentException("Missing working directory");
+            }
+
+            harness.models(models.build());
+        } catch (ArrayIndexOutOfBoundsException e) {
+            err.println("Missing value for option " + args[args.length - 1]);
+            err.println(USAGE);
+            return EXIT_USAGE;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        ModelConverter.debug = false;
+        Path results = output;
+        int[] failures = new int[1];
+        try {
+            harness.build().run(workdir, result -> {
+                if(result.isMedian()) {
+                    err.println(String.format(Locale.ROOT, "%-24s %8d ms %10.2f files/s %8.2f MB/s %6d ms GC %8s peak RSS",
+                            result.getScenario(), result.getWallMillis(), result.getFilesPerSecond(), result.getMegabytesPerSecond(),
+                            result.getGcMillis(), result.getPeakRssBytes() < 0 ? "unknown" : result.getPeakRssBytes() / (1024 * 1024) + " MB"));
+                } else if(result.getFailures() > 0) {
+                    failures[0]++;
+                }
+
+                if(results == null) {
+                    System.out.println(result.toJson());
+                    return;
+                }
+
+                try {
+                    Files.write(results, Collections.singletonList(result.toJson()), StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to write results to " + results.toAbsolutePath(), e);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        } catch (Exception e) {
+            e.printStackTrace(err);
+            return EXIT_FAILURE;
+        }
+
+        return failures[0] > 0 ? EXIT_FAILURE : EXIT_SUCCESS;
+    }
+
+    private static List<String> ids() {
+        List<String> ids = new ArrayList<>();
+        for(Scenario scenario : Scenario.values()) {
+            ids.add(scenario.getId());
+        }
+
+        return ids;
+    }
+}
@@ -0,0 +1,133 @@
+package me.nickimpact.pixelmon.modelconverter.cli;
+
+import me.nickimpact.pixelmon.modelconverter.corpus.CorpusGenerator;
+import me.nickimpact.pixelmon.modelconverter.corpus.ModelGenerator;
+
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static me.nickimpact.pixelmon.modelconverter.cli.HeadlessConverter.*;
+
+/**
+ * Writes a synthetic corpus for load testing, as {@code <output>/<format>/<species>/...} trees and,
+ * optionally, {@code <output>/<format>.jar} jars.
+ */
+public class GenerateCommand {
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: generate <output> [options]",
+            "",
+            "Options:",
+            "  --species <count>        Number of species (default: 100)",
+            "  --animations <count>     Animations per species (default: 3)",
+            "  --bones <count>          Bones per skeleton (default: 40)",
+            "  --keyframes <count>      Skeleton keyframes per model and animation (default: 30)",
+            "  --triangles <count>      Triangles per model (default: 2000)",
+            "  --materials <count>      Distinct materials per model (default: 4)",
+            "  --links <count>          Most bone links per vertex (default: 2)",
+            "  --vertex-frames <count>  Vertex animation frames per model, dropped by BMD (default: 0)",
+            "  --formats <list>         Comma separated formats out of smd, smdx and bmd (default: all)",
+            "  --jar                    Also write each format as a mod jar",
+            "  --seed <seed>            Seed the corpus is derived from (default: 0)"
+    );
+
+    static int run(String[] args) {
+        PrintStream err = System.err;
+
+        Path output = null;
+        ModelGenerator.Builder models = ModelGenerator.builder();
+        Set<CorpusGenerator.Format> formats = EnumSet.allOf(CorpusGenerator.Format.class);
+        int species = 100;
+        int animations = 3;
+        boolean jar = false;
+        long seed = 0;
+
+        try {
+            for(int i = 0; i < args.length; i++) {
+                switch(args[i]) {
+                    case "--species":
+                        species = Integer.parseInt(args[++i]);
+                        break;
+                    case "--animations":
+                        animations = Integer.parseInt(args[++i]);
+                        break;
+                    case "--bones":
+                        models.bones(Integer.parseInt(args[++i]));
+                        break;
+                    case "--keyframes":
+                        models.keyframes(Integer.parseInt(args[++i]));
+                        break;
+                    case "--triangles":
+                        models.triangles(Integer.parseInt(args[++i]));
+                        break;
+                    case "--materials":
+                        models.materials(Integer.parseInt(args[++i]));
+                        break;
+                    case "--links":
+                        models.links(Integer.parseInt(args[++i]));
+                        break;
+                    case "--vertex-frames":
+                        models.vertexFrames(Integer.parseInt(args[++i]));
+                        break;
+                    case "--formats":
+                        formats = EnumSet.noneOf(CorpusGenerator.Format.class);
+                        for(String format : args[++i].split(",")) {
+                            formats.add(CorpusGenerator.Format.valueOf(format.trim().toUpperCase()));
+                        }
+                        break;
+                    case "--jar":
+                        jar = true;
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--help":
+                    case "-h":
+                        err.println(USAGE);
+                        return EXIT_SUCCESS;
+                    default:
+                        if(args[i].startsWith("--") || output != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        output = Paths.get(args[i]);
+                }
+            }
+
+            if(output == null) {
+                throw new IllegalArgumentException("Missing output directory");
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            err.println("Missing value for option " + args[args.length - 1]);
+            err.println(USAGE);
+            return EXIT_USAGE;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        try {
+            CorpusGenerator generator = new CorpusGenerator(models.build(), species, animations, seed);
+            Files.createDirectories(output);
+            for(CorpusGenerator.Format format : formats) {
+                String name = format.name().toLowerCase();
+                err.println("Wrote " + generator.writeTree(format, output.resolve(name)) + " files to " + output.resolve(name));
+                if(jar) {
+                    err.println("Wrote " + generator.writeJar(format, output.resolve(name + ".jar")) + " entries to " + output.resolve(name + ".jar"));
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        } catch (Exception e) {
+            e.printStackTrace(err);
+            return EXIT_FAILURE;
+        }
+
+        return EXIT_SUCCESS;
+    }
+}
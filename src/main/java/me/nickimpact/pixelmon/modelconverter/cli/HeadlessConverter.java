@@ -0,0 +1,217 @@
+package me.nickimpact.pixelmon.modelconverter.cli;
+
+import me.nickimpact.pixelmon.modelconverter.ModelConverter;
+import me.nickimpact.pixelmon.modelconverter.Translator;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionException;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionJob;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionReport;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDBinaryWriter;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Runs a conversion from the command line, without ever touching AWT or Swing, so it can be used on
+ * headless build servers. A summary is written to stderr, while stdout receives a single line JSON
+ * report for consumption by other tools.
+ */
+public class HeadlessConverter {
+
+    public static final int EXIT_SUCCESS = 0;
+    public static final int EXIT_FAILURE = 1;
+    public static final int EXIT_USAGE = 2;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: <reforged|generations> <decode|encode|transcode> <input> <output> [options]",
+            "       generate <output> [options], see generate --help",
+            "       benchmark <workdir> [options], see benchmark --help",
+            "",
+            "Transcoding converts the binary models of the given mod directly into those of the other.",
+            "",
+            "Options:",
+            "  --threads <count>   Number of worker threads (default: " + ModelConverter.threads + ")",
+            "  --report <file>     Also write the JSON report to the given file",
+            "  --metrics <file>    Write per stage timings to the given file, as CSV if it ends in .csv, or JSON",
+            "  --top <count>       Number of slowest files listed in JSON metrics (default: 10)",
+            "  --incremental       Skip inputs which are unchanged since the last run into the output",
+            "  --link              Hard link files which need no conversion instead of copying them",
+            "  --smdx-version <n>  Version of the smdx files written, 2 and 3 pack geometry in bulk but are not read by the mod (default: " + ModelConverter.smdxVersion + ")",
+            "  --debug             Print each file as it is processed"
+    );
+
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if(args[0].equals("generate")) {
+            return GenerateCommand.run(Arrays.copyOfRange(args, 1, args.length));
+        } else if(args[0].equals("benchmark")) {
+            return BenchmarkCommand.run(Arrays.copyOfRange(args, 1, args.length));
+        }
+
+        PrintStream err = System.err;
+
+        List<String> positional = new ArrayList<>();
+        int threads = ModelConverter.threads;
+        File report = null;
+        File metrics = ModelConverter.metrics != null ? new File(ModelConverter.metrics) : null;
+        int top = 10;
+        boolean debug = false;
+        boolean incremental = ModelConverter.incremental;
+        int smdxVersion = ModelConverter.smdxVersion;
+
+        try {
+            for(int i = 0; i < args.length; i++) {
+                switch(args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--report":
+                        report = new File(args[++i]);
+                        break;
+                    case "--metrics":
+                        metrics = new File(args[++i]);
+                        break;
+                    case "--top":
+                        top = Integer.parseInt(args[++i]);
+                        break;
+                    case "--incremental":
+                        incremental = true;
+                        break;
+                    case "--link":
+                        ModelConverter.link = true;
+                        break;
+                    case "--smdx-version":
+                        smdxVersion = Integer.parseInt(args[++i]);
+                        if(smdxVersion < SMDBinaryWriter.VERSION || smdxVersion > SMDBinaryWriter.INDEXED_VERSION) {
+                            throw new IllegalArgumentException("Unsupported smdx version: " + smdxVersion);
+                        }
+                        break;
+                    case "--debug":
+                        debug = true;
+                        break;
+                    case "--help":
+                    case "-h":
+                        err.println(USAGE);
+                        return EXIT_SUCCESS;
+                    default:
+                        if(args[i].startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + args[i]);
+                        }
+                        positional.add(args[i]);
+                }
+            }
+
+            if(positional.size() != 4) {
+                throw new IllegalArgumentException("Expected 4 arguments, found " + positional.size());
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            err.println("Missing value for option " + args[args.length - 1]);
+            err.println(USAGE);
+            return EXIT_USAGE;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        Translator translator;
+        try {
+            boolean mode = parseMode(positional.get(0));
+            if(positional.get(1).equalsIgnoreCase("transcode")) {
+                translator = ModelConverter.transcode(mode);
+            } else {
+                translator = ModelConverter.parse(mode, parseState(positional.get(1)));
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        File in = new File(positional.get(2));
+        File out = new File(positional.get(3));
+        if(!in.exists()) {
+            err.println("Input does not exist: " + in.getAbsolutePath());
+            return EXIT_USAGE;
+        }
+
+        ModelConverter.debug = debug;
+        ModelConverter.smdxVersion = smdxVersion;
+        ModelConverter.processed.set(0);
+        ModelConverter.successful.set(0);
+
+        ConversionReport summary = new ConversionReport();
+        int code = EXIT_SUCCESS;
+        summary.start();
+        try {
+            new ConversionJob(translator, in, out, threads, incremental).run(summary);
+        } catch (ConversionException e) {
+            err.println("Failure parsing species: " + e.getSpecies());
+            e.printStackTrace(err);
+            code = EXIT_FAILURE;
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            return EXIT_USAGE;
+        } catch (Exception e) {
+            e.printStackTrace(err);
+            code = EXIT_FAILURE;
+        } finally {
+            summary.finish();
+        }
+
+        if(ModelConverter.successful.get() < ModelConverter.processed.get()) {
+            code = EXIT_FAILURE;
+        }
+
+        err.println(summary);
+        System.out.println(summary.toJson());
+        if(report != null) {
+            try {
+                Files.write(report.toPath(), Collections.singletonList(summary.toJson()), StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                err.println("Failed to write report to " + report.getAbsolutePath());
+                e.printStackTrace(err);
+                code = EXIT_FAILURE;
+            }
+        }
+
+        if(metrics != null) {
+            try {
+                summary.getMetrics().write(metrics.toPath(), top);
+            } catch (Exception e) {
+                err.println("Failed to write metrics to " + metrics.getAbsolutePath());
+                e.printStackTrace(err);
+                code = EXIT_FAILURE;
+            }
+        }
+
+        return code;
+    }
+
+    private static boolean parseMode(String mode) {
+        switch(mode.toLowerCase()) {
+            case "reforged":
+                return true;
+            case "generations":
+                return false;
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    private static boolean parseState(String state) {
+        switch(state.toLowerCase()) {
+            case "decode":
+                return true;
+            case "encode":
+                return false;
+            default:
+                throw new IllegalArgumentException("Unknown operation: " + state);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package me.nickimpact.pixelmon.modelconverter.corpus;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDBinaryWriter;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDTextWriter;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import me.nickimpact.pixelmon.modelconverter.reforged.BMDWriter;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+/**
+ * Writes a synthetic release of any size. Each species gets a model, a set of animations and a
+ * {@code .pqc} file, laid out either as a directory tree of species, or as a jar mirroring the
+ * {@code assets/pixelmon/models/pokemon} layout of the mods. Nothing is derived from real Pixelmon
+ * assets, so the output can be shared freely.
+ */
+public class CorpusGenerator {
+
+    private static final String JAR_ROOT = "assets/pixelmon/models/pokemon/";
+    private static final String[] ANIMATIONS = { "idle", "walk", "swim", "fly", "attack", "faint" };
+
+    public enum Format {
+        SMD(".smd"),
+        SMDX(".smdx"),
+        BMD(".bmd");
+
+        private final String suffix;
+
+        Format(String suffix) {
+            this.suffix = suffix;
+        }
+
+        public String getSuffix() {
+            return this.suffix;
+        }
+
+        public byte[] encode(SMDFile file) throws IOException {
+            switch(this) {
+                case SMD:
+                    ByteArrayOutputStream text = new ByteArrayOutputStream();
+                    new SMDTextWriter().write(file, text);
+                    return text.toByteArray();
+                case SMDX:
+                    MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+                    new SMDBinaryWriter().write(file, packer);
+                    return packer.toByteArray();
+                default:
+                    ByteArrayOutputStream output = new ByteArrayOutputStream();
+                    new BMDWriter().write(file, new DataOutputStream(output));
+                    return output.toByteArray();
+            }
+        }
+    }
+
+    private final ModelGenerator models;
+    private final int species;
+    private final int animations;
+    private final long seed;
+
+    /**
+     * @param models Generates the model and animations of every species
+     * @param species The number of species to write
+     * @param animations The number of animations each species has
+     * @param seed The seed the whole corpus is derived from
+     */
+    public CorpusGenerator(ModelGenerator models, int species, int animations, long seed) {
+        this.models = models;
+        this.species = species;
+        this.animations = animations;
+        this.seed = seed;
+    }
+
+    /**
+     * Writes one directory per species beneath the given root.
+     *
+     * @param format The format models and animations are written in
+     * @param root The directory to write the species into
+     * @return The number of files written
+     * @throws IOException If a file could not be written
+     */
+    public int writeTree(Format format, Path root) throws IOException {
+        return this.write(format, (name, data) -> {
+            Path file = root.resolve(name);
+            Files.createDirectories(file.getParent());
+            Files.write(file, data);
+        });
+    }
+
+    /**
+     * Writes every species into a jar, beneath {@code assets/pixelmon/models/pokemon}.
+     *
+     * @param format The format models and animations are written in
+     * @param jar The jar to write
+     * @return The number of entries written
+     * @throws IOException If the jar could not be written
+     */
+    public int writeJar(Format format, Path jar) throws IOException {
+        try (JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar))) {
+            return this.write(format, (name, data) -> {
+                output.putNextEntry(new JarEntry(JAR_ROOT + name));
+                output.write(data);
+                output.closeEntry();
+            });
+        }
+    }
+
+    private int write(Format format, Sink sink) throws IOException {
+        int written = 0;
+        for(int i = 0; i < this.species; i++) {
+            String species = "species" + i;
+            long seed = this.seed * 31 + i;
+
+            sink.accept(species + "/" + species + format.getSuffix(), format.encode(this.models.model(seed)));
+            StringBuilder pqc = new StringBuilder("$modelname \"" + species + "\"\n$body \"body\" \"" + species + ".smd\"\n");
+            for(int j = 0; j < this.animations; j++) {
+                String animation = ANIMATIONS[j % ANIMATIONS.length] + (j < ANIMATIONS.length ? "" : "_" + j / ANIMATIONS.length);
+                sink.accept(species + "/anims/" + animation + format.getSuffix(), format.encode(this.models.animation(seed * 31 + j)));
+                pqc.append("$sequence \"").append(animation).append("\" \"anims/").append(animation).append(".smd\"\n");
+            }
+            sink.accept(species + "/" + species + ".pqc", pqc.toString().getBytes(StandardCharsets.UTF_8));
+            written += this.animations + 2;
+        }
+
+        return written;
+    }
+
+    private interface Sink {
+        void accept(String name, byte[] data) throws IOException;
+    }
+}
@@ -0,0 +1,187 @@
+package me.nickimpact.pixelmon.modelconverter.corpus;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.NodesBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SkeletonBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.TrianglesBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.VertexAnimationBlock;
+
+import java.util.Random;
+
+/**
+ * Generates valid, deterministic studiomdl models of any size. Every value is rounded to the six
+ * decimals text SMD carries, so a generated model describes exactly the same thing in every format.
+ */
+public class ModelGenerator {
+
+    private final int bones;
+    private final int keyframes;
+    private final int triangles;
+    private final int materials;
+    private final int links;
+    private final int vertexFrames;
+
+    private ModelGenerator(Builder builder) {
+        this.bones = builder.bones;
+        this.keyframes = builder.keyframes;
+        this.triangles = builder.triangles;
+        this.materials = builder.materials;
+        this.links = builder.links;
+        this.vertexFrames = builder.vertexFrames;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param seed The seed the model is derived from
+     * @return A model holding the configured skeleton, triangles and vertex animation
+     */
+    public SMDFile model(long seed) {
+        return this.generate(new Random(seed), this.triangles, this.vertexFrames);
+    }
+
+    /**
+     * @param seed The seed the animation is derived from
+     * @return An animation, holding only the configured skeleton
+     */
+    public SMDFile animation(long seed) {
+        return this.generate(new Random(seed), 0, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "bones=" + this.bones + ",keyframes=" + this.keyframes + ",triangles=" + this.triangles + ",materials=" + this.materials
+                + ",links=" + this.links + ",vertexFrames=" + this.vertexFrames;
+    }
+
+    private SMDFile generate(Random random, int triangles, int vertexFrames) {
+        SMDFile file = new SMDFile();
+
+        NodesBlock nodes = new NodesBlock();
+        for(int i = 0; i < this.bones; i++) {
+            nodes.bones.add(new NodesBlock.Bone(i, "bone_" + i, i - 1));
+        }
+        file.blocks.add(nodes);
+
+        SkeletonBlock skeleton = new SkeletonBlock();
+        SkeletonBlock.BoneState[] previous = new SkeletonBlock.BoneState[this.bones];
+        for(int time = 0; time < this.keyframes; time++) {
+            SkeletonBlock.Keyframe keyframe = new SkeletonBlock.Keyframe(time);
+            for(int bone = 0; bone < this.bones; bone++) {
+                // Roughly half of the bones hold still between frames, as they tend to in real animations
+                SkeletonBlock.BoneState state = previous[bone];
+                if(state == null || random.nextBoolean()) {
+                    state = new SkeletonBlock.BoneState(bone,
+                            value(random, 10), value(random, 10), value(random, 10),
+                            value(random, 3.2f), value(random, 3.2f), value(random, 3.2f)
+                    );
+                }
+                previous[bone] = state;
+                keyframe.states.add(new SkeletonBlock.BoneState(bone, state.posX, state.posY, state.posZ, state.rotX, state.rotY, state.rotZ));
+            }
+            skeleton.keyframes.add(keyframe);
+        }
+        file.blocks.add(skeleton);
+
+        if(triangles > 0) {
+            TrianglesBlock block = new TrianglesBlock();
+            for(int i = 0; i < triangles; i++) {
+                block.triangles.add(new TrianglesBlock.Triangle("material_" + random.nextInt(this.materials) + ".png",
+                        this.vertex(random), this.vertex(random), this.vertex(random)
+                ));
+            }
+            file.blocks.add(block);
+        }
+
+        if(vertexFrames > 0) {
+            VertexAnimationBlock block = new VertexAnimationBlock();
+            int vertices = triangles * 3;
+            for(int time = 0; time < vertexFrames; time++) {
+                VertexAnimationBlock.Keyframe keyframe = new VertexAnimationBlock.Keyframe(time);
+                for(int vertex = 0; vertex < vertices; vertex += 1 + random.nextInt(4)) {
+                    keyframe.states.add(new VertexAnimationBlock.VertexState(vertex,
+                            value(random, 50), value(random, 50), value(random, 50),
+                            value(random, 1), value(random, 1), value(random, 1)
+                    ));
+                }
+                block.keyframes.add(keyframe);
+            }
+            file.blocks.add(block);
+        }
+
+        return file;
+    }
+
+    private TrianglesBlock.Vertex vertex(Random random) {
+        TrianglesBlock.Vertex vertex = new TrianglesBlock.Vertex(0,
+                value(random, 50), value(random, 50), value(random, 50),
+                value(random, 1), value(random, 1), value(random, 1),
+                Math.abs(value(random, 1)), Math.abs(value(random, 1))
+        );
+
+        int count = 1 + random.nextInt(this.links);
+        for(int i = 0; i < count; i++) {
+            vertex.links.add(new TrianglesBlock.Link(random.nextInt(Math.max(1, this.bones)), Math.abs(value(random, 1))));
+        }
+
+        return vertex;
+    }
+
+    private static float value(Random random, float range) {
+        return Math.round((random.nextFloat() * 2 - 1) * range * 1e6) / 1e6f;
+    }
+
+    public static class Builder {
+
+        private int bones = 40;
+        private int keyframes = 30;
+        private int triangles = 2000;
+        private int materials = 4;
+        private int links = 2;
+        private int vertexFrames = 0;
+
+        public Builder bones(int bones) {
+            this.bones = bones;
+            return this;
+        }
+
+        public Builder keyframes(int keyframes) {
+            this.keyframes = keyframes;
+            return this;
+        }
+
+        public Builder triangles(int triangles) {
+            this.triangles = triangles;
+            return this;
+        }
+
+        public Builder materials(int materials) {
+            this.materials = materials;
+            return this;
+        }
+
+        /**
+         * @param links The most bones a single vertex may be linked to. Every vertex has at least one link,
+         *              as the Reforged encoder requires one.
+         */
+        public Builder links(int links) {
+            this.links = links;
+            return this;
+        }
+
+        public Builder vertexFrames(int vertexFrames) {
+            this.vertexFrames = vertexFrames;
+            return this;
+        }
+
+        public ModelGenerator build() {
+            if(this.bones < 1 || this.keyframes < 1 || this.triangles < 0 || this.materials < 1 || this.links < 1 || this.vertexFrames < 0) {
+                throw new IllegalArgumentException("Models need at least one bone, keyframe, material and link, and no negative counts");
+            }
+
+            return new ModelGenerator(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time spent converting a single asset, broken down by stage. Reading covers pulling the input off
+ * disk or inflating it from a jar, parsing covers building the translator's model of the input, encoding
+ * covers producing the output from that model, and writing covers flushing the output to disk.
+ */
+public class AssetMetrics {
+
+    private final String source;
+    private final String translator;
+    private final long bytesIn;
+    private final long bytesOut;
+    private final long read;
+    private final long parse;
+    private final long encode;
+    private final long write;
+
+    /**
+     * @param source The path of the asset, relative to the root of its input
+     * @param translator The name of whatever converted the asset
+     * @param bytesIn The size of the asset which was read
+     * @param bytesOut The size of the output which was written
+     * @param read Nanoseconds spent reading the input
+     * @param parse Nanoseconds spent parsing the input
+     * @param encode Nanoseconds spent encoding the output
+     * @param write Nanoseconds spent writing the output
+     */
+    public AssetMetrics(String source, String translator, long bytesIn, long bytesOut, long read, long parse, long encode, long write) {
+        this.source = source;
+        this.translator = translator;
+        this.bytesIn = bytesIn;
+        this.bytesOut = bytesOut;
+        this.read = read;
+        this.parse = parse;
+        this.encode = encode;
+        this.write = write;
+    }
+
+    public String getSource() {
+        return this.source;
+    }
+
+    public String getTranslator() {
+        return this.translator;
+    }
+
+    public long getBytesIn() {
+        return this.bytesIn;
+    }
+
+    public long getBytesOut() {
+        return this.bytesOut;
+    }
+
+    public long getRead() {
+        return this.read;
+    }
+
+    public long getParse() {
+        return this.parse;
+    }
+
+    public long getEncode() {
+        return this.encode;
+    }
+
+    public long getWrite() {
+        return this.write;
+    }
+
+    public long getTotal() {
+        return this.read + this.parse + this.encode + this.write;
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"source\":%s,\"translator\":%s,\"bytesIn\":%d,\"bytesOut\":%d,\"readMs\":%.3f,\"parseMs\":%.3f,\"encodeMs\":%.3f,\"writeMs\":%.3f,\"totalMs\":%.3f}",
+                ConversionMetrics.quote(this.source), ConversionMetrics.quote(this.translator), this.bytesIn, this.bytesOut,
+                millis(this.read), millis(this.parse), millis(this.encode), millis(this.write), millis(this.getTotal())
+        );
+    }
+
+    static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
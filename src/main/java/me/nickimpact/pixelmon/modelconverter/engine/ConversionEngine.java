@@ -0,0 +1,251 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import me.nickimpact.pixelmon.modelconverter.Asset;
+import me.nickimpact.pixelmon.modelconverter.Translator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiPredicate;
+
+import static me.nickimpact.pixelmon.modelconverter.ModelConverter.*;
+
+/**
+ * Converts a directory tree by fanning its files out over a work-stealing pool, rather than walking
+ * one species directory at a time. The tree is walked exactly once, with each matching file handed to
+ * the pool as soon as it is found, so conversion starts while the rest of the tree is still being read.
+ */
+public class ConversionEngine {
+
+    /** Files at least this large are mapped rather than read onto the heap */
+    private static final long MAP_THRESHOLD = 1 << 20;
+
+    private final Translator translator;
+    private final int parallelism;
+    private final boolean hashing;
+
+    public ConversionEngine(Translator translator, int parallelism) {
+        this(translator, parallelism, false);
+    }
+
+    /**
+     * @param hashing Whether the contents of each file are hashed as it is converted, and reported
+     *                through {@link ConversionListener#onHashed}
+     */
+    public ConversionEngine(Translator translator, int parallelism, boolean hashing) {
+        this.translator = translator;
+        this.parallelism = Math.max(1, parallelism);
+        this.hashing = hashing;
+    }
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    /**
+     * Converts every file beneath the input directory which the translator is able to process,
+     * mirroring its location relative to the input directory into the output directory. The first
+     * failure stops the walk along with any work which has not yet started, and is rethrown once every
+     * conversion already under way has finished, so nothing is written to the output tree after this
+     * returns.
+     *
+     * @param in The root of the input tree
+     * @param out The root of the output tree
+     * @param filter Decides whether a matching file should be converted, given the attributes read by the walk
+     * @param listener Notified of the running total as files are found, and after each file has been
+     *                 handled, from the worker thread which handled it
+     * @throws IOException If the tree could not be walked
+     * @throws InterruptedException If interrupted while waiting on the conversions under way
+     */
+    public void convert(Path in, Path out, BiPredicate<Path, BasicFileAttributes> filter, ConversionListener listener) throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        AtomicBoolean failed = new AtomicBoolean();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        RuntimeException failure = null;
+
+        try {
+            Files.walkFileTree(in, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if(failed.get()) {
+                        return FileVisitResult.TERMINATE;
+                    }
+
+                    if(attributes.isRegularFile() && accepts(file) && filter.test(file, attributes)) {
+                        tasks.add(pool.submit(new ConvertTask(in, out, file, attributes.size(), listener, failed)));
+                        listener.onDiscovered(tasks.size());
+                    }
+
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+
+            for(ForkJoinTask<?> task : tasks) {
+                try {
+                    task.join();
+                } catch (RuntimeException e) {
+                    if(failure == null) {
+                        failure = e;
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        if(failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Gets the directory the result of converting the given file will be written into.
+     *
+     * @param in The root of the input tree
+     * @param out The root of the output tree
+     * @param file The file being converted
+     * @return The mirrored location of the file's directory within the output tree
+     */
+    public static Path target(Path in, Path out, Path file) {
+        return out.resolve(in.relativize(file.getParent()).toString());
+    }
+
+    /**
+     * Gets the name an input file is known by in listener callbacks and manifests.
+     *
+     * @param in The root of the input tree
+     * @param file The input file
+     * @return The path of the file relative to the input root, separated by {@code /}
+     */
+    public static String source(Path in, Path file) {
+        return in.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    /**
+     * Gets the name a translator is known by in metrics.
+     *
+     * @param translator The translator
+     * @return The simple name of the translator's class
+     */
+    public static String name(Translator translator) {
+        return translator.getClass().getSimpleName();
+    }
+
+    /**
+     * Loads a file to be translated. Large files are mapped, so they are paged in as the translator reads
+     * them rather than copied onto the heap, while smaller files are read into a buffer of exactly their
+     * size, which is cheaper than setting up a mapping.
+     */
+    private static ByteBuffer load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if(size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while(buffer.hasRemaining()) {
+                if(channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            return buffer;
+        }
+    }
+
+    private boolean accepts(Path path) {
+        String name = path.getFileName().toString();
+        for(String suffix : this.translator.getValidFileSuffixes()) {
+            if(name.endsWith(suffix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private class ConvertTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Path in;
+        private final Path out;
+        private final Path file;
+        private final long size;
+        private final ConversionListener listener;
+        private final AtomicBoolean failed;
+
+        private ConvertTask(Path in, Path out, Path file, long size, ConversionListener listener, AtomicBoolean failed) {
+            this.in = in;
+            this.out = out;
+            this.file = file;
+            this.size = size;
+            this.listener = listener;
+            this.failed = failed;
+        }
+
+        @Override
+        protected void compute() {
+            if(this.failed.get()) {
+                return;
+            }
+
+            String source = source(this.in, this.file);
+            Path result = target(this.in, this.out, this.file).resolve(translator.getOutputName(this.file.getFileName().toString()));
+            debug("Converting: " + source);
+            processed.getAndIncrement();
+            AssetMetrics metrics;
+            try {
+                Files.createDirectories(result.getParent());
+                if(translator.isPassthrough(source)) {
+                    long start = System.nanoTime();
+                    if(hashing) {
+                        // Hashed just before the copy, which then reads the file back from the page cache
+                        this.listener.onHashed(source, Manifest.hash(load(this.file)));
+                    }
+                    Passthrough.copy(this.file, result);
+                    metrics = new AssetMetrics(source, Passthrough.NAME, this.size, this.size, 0, 0, 0, System.nanoTime() - start);
+                } else {
+                    Asset asset = new Asset(source, this.size);
+                    long start = System.nanoTime();
+                    ByteBuffer input = load(this.file);
+                    if(hashing) {
+                        this.listener.onHashed(source, Manifest.hash(input));
+                    }
+                    long read = System.nanoTime() - start;
+                    try (Timed.Output output = new Timed.Output(Files.newOutputStream(result))) {
+                        start = System.nanoTime();
+                        translator.translate(asset, input, output);
+                        long work = System.nanoTime() - start - output.getNanos();
+                        long parse = asset.getParsedAt() < 0 ? 0 : Math.min(work, Math.max(0, asset.getParsedAt() - start));
+                        metrics = new AssetMetrics(source, name(translator), this.size, output.getBytes(), read, parse, Math.max(0, work - parse), output.getNanos());
+                    }
+                }
+                successful.incrementAndGet();
+            } catch (Exception e) {
+                this.failed.set(true);
+                this.listener.onConverted(source, this.size, 0, false);
+                throw new ConversionException(source, e);
+            }
+
+            this.listener.onMeasured(metrics);
+            this.listener.onConverted(source, metrics.getBytesIn(), metrics.getBytesOut(), true);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import java.util.regex.Matcher;
+
+import static me.nickimpact.pixelmon.modelconverter.ModelConverter.JAR_PATTERN;
+
+/**
+ * Thrown when a single asset fails to convert, carrying the name of the asset which caused it.
+ */
+public class ConversionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String source;
+
+    public ConversionException(String source, Throwable cause) {
+        super("Failed to convert " + source, cause);
+        this.source = source;
+    }
+
+    /**
+     * @return The path of the failed asset, relative to the root of its input and separated by {@code /}
+     */
+    public String getSource() {
+        return this.source;
+    }
+
+    /**
+     * @return The species the failed asset belongs to
+     */
+    public String getSpecies() {
+        Matcher matcher = JAR_PATTERN.matcher(this.source);
+        if(matcher.find()) {
+            return matcher.group("species");
+        }
+
+        return this.source.split("/")[0];
+    }
+}
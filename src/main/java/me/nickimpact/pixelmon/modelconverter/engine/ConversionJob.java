@@ -0,0 +1,237 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import me.nickimpact.pixelmon.modelconverter.Translator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A single conversion of an input jar or directory into an output directory, independent of how the
+ * conversion is presented to the user.
+ */
+public class ConversionJob {
+
+    private static final Pattern SUFFIX = Pattern.compile("[.][a-zA-Z]+");
+
+    private final Translator translator;
+    private final File in;
+    private final File out;
+    private final int threads;
+    private final boolean incremental;
+
+    public ConversionJob(Translator translator, File in, File out, int threads) {
+        this(translator, in, out, threads, false);
+    }
+
+    /**
+     * @param incremental Whether inputs which are unchanged since the last run into the same output,
+     *                    and whose outputs are still intact, should be skipped. See {@link Manifest}.
+     */
+    public ConversionJob(Translator translator, File in, File out, int threads, boolean incremental) {
+        this.translator = translator;
+        this.in = in;
+        this.out = out;
+        this.threads = threads;
+        this.incremental = incremental;
+    }
+
+    /**
+     * Runs the conversion to completion.
+     *
+     * @param listener Notified as assets are discovered and converted
+     * @throws ConversionException If an asset fails to convert
+     * @throws IllegalArgumentException If the input cannot be handled by the translator
+     * @throws IOException If the input could not be read
+     * @throws InterruptedException If interrupted while waiting on the conversion
+     */
+    public void run(ConversionListener listener) throws IOException, InterruptedException {
+        this.out.mkdirs();
+
+        if(this.in.getName().endsWith(".jar") && !(this.translator instanceof Translator.Deserializer)) {
+            throw new IllegalArgumentException("Reading .jar files is only available for deserialization!");
+        }
+
+        Path manifestFile = this.out.toPath().resolve(Manifest.FILE_NAME);
+        Tracker tracker = null;
+        if(this.incremental) {
+            String name = this.translator.getClass().getName();
+            tracker = new Tracker(Manifest.load(manifestFile, name), new Manifest(name), listener);
+            listener = tracker;
+        }
+
+        try {
+            if(this.in.getName().endsWith(".jar")) {
+                this.runJar(listener, tracker);
+            } else {
+                this.runDirectory(listener, tracker);
+            }
+        } finally {
+            if(tracker != null) {
+                tracker.next.save(manifestFile);
+            }
+        }
+    }
+
+    private void runJar(ConversionListener listener, Tracker tracker) throws IOException, InterruptedException {
+        try (JarFile file = new JarFile(this.in)) {
+            Set<JarEntry> entries = file.stream()
+                    .filter(entry -> {
+                        Matcher matcher = SUFFIX.matcher(entry.getName());
+                        if (entry.getName().startsWith("assets/pixelmon/models/pokemon/") && matcher.find()) {
+                            return this.translator.getValidFileSuffixes().contains(matcher.group());
+                        }
+                        return false;
+                    })
+                    .sorted(Comparator.comparing(JarEntry::getName))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+
+            if(tracker != null) {
+                Set<JarEntry> pending = new LinkedHashSet<>();
+                for(JarEntry entry : entries) {
+                    File output = JarPipeline.target(this.translator, this.out.toPath(), entry.getName()).toFile();
+                    Input input = new Input(entry.getSize(), entry.getTime(), Long.toHexString(entry.getCrc()), null, output);
+                    if(!tracker.skip(entry.getName(), input)) {
+                        pending.add(entry);
+                    }
+                }
+                entries = pending;
+            }
+
+            listener.onDiscovered(entries.size());
+            new JarPipeline(this.translator, this.threads).convert(file, entries, this.out.toPath(), listener);
+        }
+    }
+
+    private void runDirectory(ConversionListener listener, Tracker tracker) throws IOException, InterruptedException {
+        Path in = this.in.toPath();
+        Path out = this.out.toPath();
+        ConversionEngine engine = new ConversionEngine(this.translator, this.threads, tracker != null);
+
+        listener.onDiscovered(0);
+        engine.convert(in, out, (path, attributes) -> {
+            if(tracker == null) {
+                return true;
+            }
+
+            File output = ConversionEngine.target(in, out, path).resolve(this.translator.getOutputName(path.getFileName().toString())).toFile();
+            Input input = new Input(attributes.size(), attributes.lastModifiedTime().toMillis(), null, path.toFile(), output);
+            return !tracker.skip(ConversionEngine.source(in, path), input);
+        }, listener);
+    }
+
+    /**
+     * Skips inputs recorded as up to date by the previous manifest, and records every input which is
+     * skipped or successfully converted into the next one.
+     */
+    private static class Tracker implements ConversionListener {
+
+        private final Manifest previous;
+        private final Manifest next;
+        private final ConversionListener delegate;
+        private final Map<String, Input> pending = new ConcurrentHashMap<>();
+
+        private Tracker(Manifest previous, Manifest next, ConversionListener delegate) {
+            this.previous = previous;
+            this.next = next;
+            this.delegate = delegate;
+        }
+
+        private boolean skip(String source, Input input) {
+            Manifest.Entry entry = this.previous.get(source);
+            if(entry == null || entry.getSize() != input.size || !entry.matchesOutput(input.output)) {
+                this.pending.put(source, input);
+                return false;
+            }
+
+            if(entry.getModified() != input.modified) {
+                try {
+                    if(!entry.getHash().equals(input.hash())) {
+                        this.pending.put(source, input);
+                        return false;
+                    }
+                } catch (IOException e) {
+                    this.pending.put(source, input);
+                    return false;
+                }
+
+                entry = entry.withModified(input.modified);
+            }
+
+            this.next.put(source, entry);
+            this.delegate.onSkipped(source);
+            return true;
+        }
+
+        @Override
+        public void onDiscovered(int total) {
+            this.delegate.onDiscovered(total);
+        }
+
+        @Override
+        public void onSkipped(String source) {
+            this.delegate.onSkipped(source);
+        }
+
+        @Override
+        public void onMeasured(AssetMetrics metrics) {
+            this.delegate.onMeasured(metrics);
+        }
+
+        @Override
+        public void onHashed(String source, String hash) {
+            Input input = this.pending.get(source);
+            if(input != null) {
+                input.hash = hash;
+            }
+            this.delegate.onHashed(source, hash);
+        }
+
+        @Override
+        public void onConverted(String source, long bytesIn, long bytesOut, boolean success) {
+            Input input = this.pending.remove(source);
+
+            // Inputs are hashed as they are converted, so an input without a hash is simply converted again on the next run
+            if(success && input != null && input.hash != null) {
+                this.next.put(source, Manifest.Entry.of(input.size, input.modified, input.hash, input.output));
+            }
+
+            this.delegate.onConverted(source, bytesIn, bytesOut, success);
+        }
+    }
+
+    private static class Input {
+
+        private final long size;
+        private final long modified;
+        private final File file;
+        private final File output;
+        private String hash;
+
+        private Input(long size, long modified, String hash, File file, File output) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.file = file;
+            this.output = output;
+        }
+
+        private String hash() throws IOException {
+            if(this.hash == null) {
+                this.hash = Manifest.hash(this.file);
+            }
+
+            return this.hash;
+        }
+    }
+}
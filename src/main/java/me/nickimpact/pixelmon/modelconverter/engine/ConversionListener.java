@@ -0,0 +1,51 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+/**
+ * Receives progress from a running conversion. Callbacks may arrive from several worker threads at
+ * once, so implementations must be thread safe.
+ */
+public interface ConversionListener {
+
+    /**
+     * Called as assets which need converting are found. Inputs which are discovered while the
+     * conversion is already running report a growing total, with the last call carrying the final one.
+     *
+     * @param total The number of assets found so far which will be converted
+     */
+    default void onDiscovered(int total) {}
+
+    /**
+     * Called for each asset which is left untouched, as its existing output is already up to date.
+     *
+     * @param source The path of the asset, relative to the root of its input
+     */
+    default void onSkipped(String source) {}
+
+    /**
+     * Called after each asset has been handled, whether or not it converted successfully.
+     *
+     * @param source The path of the asset, relative to the root of its input
+     * @param bytesIn The size of the asset which was read
+     * @param bytesOut The size of the output which was written
+     * @param success Whether the asset converted without error
+     */
+    void onConverted(String source, long bytesIn, long bytesOut, boolean success);
+
+    /**
+     * Called with the timings of each asset which converted successfully, just before
+     * {@link #onConverted} is called for it.
+     *
+     * @param metrics The time spent on each stage of converting the asset
+     */
+    default void onMeasured(AssetMetrics metrics) {}
+
+    /**
+     * Called with the hash of each asset's contents, taken from the very bytes which were converted,
+     * before {@link #onConverted} is called for it. Only sent by conversions asked to hash their inputs.
+     *
+     * @param source The path of the asset, relative to the root of its input
+     * @param hash The hash of the asset, as given by {@link Manifest#hash(java.nio.ByteBuffer)}
+     */
+    default void onHashed(String source, String hash) {}
+
+}
@@ -0,0 +1,145 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates the per stage timings of every converted asset, along with a latency histogram for each
+ * translator, so that the models which dominate a run can be found and regressions between releases
+ * tracked.
+ */
+public class ConversionMetrics implements ConversionListener {
+
+    private final Queue<AssetMetrics> assets = new ConcurrentLinkedQueue<>();
+    private final Map<String, LatencyHistogram> translators = new ConcurrentHashMap<>();
+    private final LongAdder read = new LongAdder();
+    private final LongAdder parse = new LongAdder();
+    private final LongAdder encode = new LongAdder();
+    private final LongAdder write = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    @Override
+    public void onMeasured(AssetMetrics metrics) {
+        this.assets.add(metrics);
+        this.translators.computeIfAbsent(metrics.getTranslator(), key -> new LatencyHistogram()).record(metrics.getTotal());
+        this.read.add(metrics.getRead());
+        this.parse.add(metrics.getParse());
+        this.encode.add(metrics.getEncode());
+        this.write.add(metrics.getWrite());
+        this.bytesIn.add(metrics.getBytesIn());
+        this.bytesOut.add(metrics.getBytesOut());
+    }
+
+    @Override
+    public void onConverted(String source, long bytesIn, long bytesOut, boolean success) {}
+
+    public LatencyHistogram getHistogram(String translator) {
+        return this.translators.get(translator);
+    }
+
+    /**
+     * @param count The maximum number of assets to return
+     * @return The assets which took longest to convert, slowest first
+     */
+    public List<AssetMetrics> getSlowest(int count) {
+        List<AssetMetrics> sorted = this.sorted();
+        return sorted.subList(0, Math.min(count, sorted.size()));
+    }
+
+    /**
+     * @param top The number of slowest assets to list
+     * @return The report as a single JSON object, holding the stage totals, the histogram of each
+     *         translator and the slowest assets
+     */
+    public String toJson(int top) {
+        StringJoiner translators = new StringJoiner(",", "{", "}");
+        for(Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(this.translators).entrySet()) {
+            translators.add(quote(entry.getKey()) + ":" + entry.getValue().toJson());
+        }
+
+        StringJoiner slowest = new StringJoiner(",", "[", "]");
+        for(AssetMetrics asset : this.getSlowest(top)) {
+            slowest.add(asset.toJson());
+        }
+
+        return String.format(Locale.ROOT,
+                "{\"files\":%d,\"bytesIn\":%d,\"bytesOut\":%d,\"stages\":{\"readMs\":%.3f,\"parseMs\":%.3f,\"encodeMs\":%.3f,\"writeMs\":%.3f},\"translators\":%s,\"slowest\":%s}",
+                this.assets.size(), this.bytesIn.sum(), this.bytesOut.sum(),
+                AssetMetrics.millis(this.read.sum()), AssetMetrics.millis(this.parse.sum()),
+                AssetMetrics.millis(this.encode.sum()), AssetMetrics.millis(this.write.sum()),
+                translators, slowest
+        );
+    }
+
+    /**
+     * @return The timings of every asset as CSV, with a header row, slowest first
+     */
+    public String toCsv() {
+        StringBuilder builder = new StringBuilder("source,translator,bytesIn,bytesOut,readMs,parseMs,encodeMs,writeMs,totalMs\n");
+        for(AssetMetrics asset : this.sorted()) {
+            builder.append(csv(asset.getSource())).append(',').append(csv(asset.getTranslator())).append(String.format(Locale.ROOT,
+                    ",%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f\n",
+                    asset.getBytesIn(), asset.getBytesOut(), AssetMetrics.millis(asset.getRead()), AssetMetrics.millis(asset.getParse()),
+                    AssetMetrics.millis(asset.getEncode()), AssetMetrics.millis(asset.getWrite()), AssetMetrics.millis(asset.getTotal())
+            ));
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Writes the report to the given file, as CSV if its name ends in {@code .csv}, or JSON otherwise.
+     *
+     * @param file The file to write
+     * @param top The number of slowest assets to list in a JSON report
+     * @throws IOException If the file could not be written
+     */
+    public void write(Path file, int top) throws IOException {
+        String content = file.getFileName().toString().endsWith(".csv") ? this.toCsv() : this.toJson(top) + "\n";
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<AssetMetrics> sorted() {
+        List<AssetMetrics> sorted = new ArrayList<>(this.assets);
+        sorted.sort(Collections.reverseOrder(Comparator.comparingLong(AssetMetrics::getTotal)));
+        return sorted;
+    }
+
+    static String quote(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for(char c : value.toCharArray()) {
+            if(c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if(c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+
+    private static String csv(String value) {
+        if(value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
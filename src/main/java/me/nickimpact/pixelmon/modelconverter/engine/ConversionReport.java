@@ -0,0 +1,125 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import me.nickimpact.pixelmon.modelconverter.util.Time;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the totals of a conversion run, for reporting once it has finished.
+ */
+public class ConversionReport implements ConversionListener {
+
+    private final LongAdder files = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final ConversionMetrics metrics = new ConversionMetrics();
+
+    private volatile int total;
+    private Instant start;
+    private Instant end;
+
+    public void start() {
+        this.start = Instant.now();
+    }
+
+    public void finish() {
+        this.end = Instant.now();
+    }
+
+    @Override
+    public void onDiscovered(int total) {
+        this.total = total;
+    }
+
+    @Override
+    public void onSkipped(String source) {
+        this.skipped.increment();
+    }
+
+    @Override
+    public void onConverted(String source, long bytesIn, long bytesOut, boolean success) {
+        this.files.increment();
+        this.bytesIn.add(bytesIn);
+        this.bytesOut.add(bytesOut);
+        if(!success) {
+            this.failures.increment();
+        }
+    }
+
+    @Override
+    public void onMeasured(AssetMetrics metrics) {
+        this.metrics.onMeasured(metrics);
+    }
+
+    /**
+     * @return The per stage breakdown of the run
+     */
+    public ConversionMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    public int getTotal() {
+        return this.total;
+    }
+
+    public long getFiles() {
+        return this.files.sum();
+    }
+
+    public long getFailures() {
+        return this.failures.sum();
+    }
+
+    public long getSkipped() {
+        return this.skipped.sum();
+    }
+
+    public long getBytesIn() {
+        return this.bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return this.bytesOut.sum();
+    }
+
+    public Duration getDuration() {
+        return Duration.between(this.start, this.end != null ? this.end : Instant.now());
+    }
+
+    public double getFilesPerSecond() {
+        return this.getFiles() / this.seconds();
+    }
+
+    public double getMegabytesPerSecond() {
+        return this.getBytesIn() / (1024.0 * 1024.0) / this.seconds();
+    }
+
+    /**
+     * @return The report as a single line JSON object
+     */
+    public String toJson() {
+        return String.format(Locale.ROOT,
+                "{\"total\":%d,\"files\":%d,\"failures\":%d,\"skipped\":%d,\"bytesIn\":%d,\"bytesOut\":%d,\"wallMillis\":%d,\"filesPerSecond\":%.2f,\"mbPerSecond\":%.2f}",
+                this.getTotal(), this.getFiles(), this.getFailures(), this.getSkipped(), this.getBytesIn(), this.getBytesOut(),
+                this.getDuration().toMillis(), this.getFilesPerSecond(), this.getMegabytesPerSecond()
+        );
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "Converted %d of %d files (%d failed, %d up to date), %d bytes in, %d bytes out, took %s (%.2f files/s, %.2f MB/s)",
+                this.getFiles() - this.getFailures(), this.getTotal(), this.getFailures(), this.getSkipped(), this.getBytesIn(), this.getBytesOut(),
+                new Time(this.getDuration().toMillis()), this.getFilesPerSecond(), this.getMegabytesPerSecond()
+        );
+    }
+
+    private double seconds() {
+        return Math.max(1, this.getDuration().toMillis()) / 1000.0;
+    }
+}
@@ -0,0 +1,210 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import me.nickimpact.pixelmon.modelconverter.Asset;
+import me.nickimpact.pixelmon.modelconverter.Translator;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+
+import static me.nickimpact.pixelmon.modelconverter.ModelConverter.*;
+
+/**
+ * Decodes the model entries of a jar through three stages: a reader which inflates each entry into
+ * memory, a pool of workers which decode them, and a writer which flushes the results to disk. Entries
+ * which need no decoding are handed from the reader straight to the writer. The
+ * stages are joined by bounded queues, so only a handful of entries are held in memory at any one time,
+ * regardless of the size of the jar.
+ */
+public class JarPipeline {
+
+    private static final Payload END = new Payload(null, null, 0, null, 0, 0, 0);
+
+    private final Translator translator;
+    private final int workers;
+    private final int capacity;
+
+    public JarPipeline(Translator translator, int workers) {
+        this(translator, workers, workers * 2);
+    }
+
+    public JarPipeline(Translator translator, int workers, int capacity) {
+        this.translator = translator;
+        this.workers = Math.max(1, workers);
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Decodes the given entries of the jar into the output directory. The first failure in any stage
+     * stops the pipeline and is rethrown once every stage has been shut down.
+     *
+     * @param jar The jar holding the entries
+     * @param entries The entries to decode, in the order they should be read
+     * @param out The root of the output tree
+     * @param listener Notified after each entry has been handled
+     * @throws InterruptedException If interrupted while waiting on the pipeline
+     */
+    public void convert(JarFile jar, Collection<JarEntry> entries, Path out, ConversionListener listener) throws InterruptedException {
+        BlockingQueue<Payload> inflated = new ArrayBlockingQueue<>(this.capacity);
+        BlockingQueue<Payload> decoded = new ArrayBlockingQueue<>(this.capacity);
+        AtomicReference<ConversionException> failure = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(this.workers + 1);
+
+        try {
+            executor.execute(() -> this.read(jar, entries, inflated, decoded, failure, executor));
+            for(int i = 0; i < this.workers; i++) {
+                executor.execute(() -> this.decode(inflated, decoded, listener, failure, executor));
+            }
+
+            int finished = 0;
+            while(finished < this.workers && failure.get() == null) {
+                Payload payload = decoded.poll(100, TimeUnit.MILLISECONDS);
+                if(payload == null) {
+                    continue;
+                }
+
+                if(payload == END) {
+                    finished++;
+                    continue;
+                }
+
+                try {
+                    long start = System.nanoTime();
+                    Path target = target(this.translator, out, payload.name);
+                    Files.createDirectories(target.getParent());
+                    Passthrough.write(payload.data, target);
+                    long write = System.nanoTime() - start;
+                    successful.incrementAndGet();
+                    listener.onMeasured(new AssetMetrics(payload.name, payload.translator, payload.size, payload.data.length, payload.read, payload.parse, payload.encode, write));
+                    listener.onConverted(payload.name, payload.size, payload.data.length, true);
+                } catch (Exception e) {
+                    listener.onConverted(payload.name, payload.size, 0, false);
+                    fail(failure, executor, new ConversionException(payload.name, e));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+
+        if(failure.get() != null) {
+            throw failure.get();
+        }
+    }
+
+    /**
+     * Gets the file the given jar entry will be decoded into.
+     *
+     * @param translator The translator decoding the entry
+     * @param out The root of the output tree
+     * @param name The name of the jar entry
+     * @return The location of the decoded entry within the output tree
+     */
+    public static Path target(Translator translator, Path out, String name) {
+        Matcher matcher = JAR_PATTERN.matcher(name);
+        matcher.find();
+        Path target = out.resolve(matcher.group("species")).resolve(matcher.group("rest"));
+        return target.resolveSibling(translator.getOutputName(target.getFileName().toString()));
+    }
+
+    private void read(JarFile jar, Collection<JarEntry> entries, BlockingQueue<Payload> inflated, BlockingQueue<Payload> decoded, AtomicReference<ConversionException> failure, ExecutorService executor) {
+        try {
+            for(JarEntry entry : entries) {
+                if(failure.get() != null) {
+                    return;
+                }
+
+                debug("Inflating entry: " + entry.getName());
+                long start = System.nanoTime();
+                byte[] data;
+                try {
+                    data = Passthrough.read(jar, entry);
+                } catch (Exception e) {
+                    fail(failure, executor, new ConversionException(entry.getName(), e));
+                    return;
+                }
+
+                if(this.translator.isPassthrough(entry.getName())) {
+                    // Nothing to decode, so skip the workers and hand the entry straight to the writer
+                    processed.getAndIncrement();
+                    decoded.put(new Payload(entry.getName(), data, data.length, Passthrough.NAME, System.nanoTime() - start, 0, 0));
+                } else {
+                    inflated.put(new Payload(entry.getName(), data, data.length, null, System.nanoTime() - start, 0, 0));
+                }
+            }
+
+            for(int i = 0; i < this.workers; i++) {
+                inflated.put(END);
+            }
+        } catch (InterruptedException ignored) {
+            // The pipeline is being torn down
+        }
+    }
+
+    private void decode(BlockingQueue<Payload> inflated, BlockingQueue<Payload> decoded, ConversionListener listener, AtomicReference<ConversionException> failure, ExecutorService executor) {
+        try {
+            Payload payload;
+            while((payload = inflated.take()) != END) {
+                debug("Decoding entry: " + payload.name);
+                processed.getAndIncrement();
+
+                Asset asset = new Asset(payload.name, payload.size);
+                ByteArrayOutputStream output = new ByteArrayOutputStream(payload.data.length);
+                long start = System.nanoTime();
+                try {
+                    this.translator.translate(asset, ByteBuffer.wrap(payload.data), output);
+                } catch (Exception e) {
+                    listener.onConverted(payload.name, payload.size, 0, false);
+                    fail(failure, executor, new ConversionException(payload.name, e));
+                    return;
+                }
+
+                long work = System.nanoTime() - start;
+                long parse = asset.getParsedAt() < 0 ? 0 : Math.min(work, asset.getParsedAt() - start);
+                decoded.put(new Payload(payload.name, output.toByteArray(), payload.size, ConversionEngine.name(this.translator), payload.read, parse, work - parse));
+            }
+
+            decoded.put(END);
+        } catch (InterruptedException ignored) {
+            // The pipeline is being torn down
+        }
+    }
+
+    private static void fail(AtomicReference<ConversionException> failure, ExecutorService executor, ConversionException exception) {
+        if(failure.compareAndSet(null, exception)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class Payload {
+
+        private final String name;
+        private final byte[] data;
+        private final long size;
+        private final String translator;
+        private final long read;
+        private final long parse;
+        private final long encode;
+
+        private Payload(String name, byte[] data, long size, String translator, long read, long parse, long encode) {
+            this.name = name;
+            this.data = data;
+            this.size = size;
+            this.translator = translator;
+            this.read = read;
+            this.parse = parse;
+            this.encode = encode;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread safe histogram of latencies, bucketed by powers of two microseconds. Percentiles are
+ * reported as the upper bound of the bucket they fall in, so are accurate to within a factor of two.
+ */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        for(int i = 0; i < BUCKETS; i++) {
+            this.buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param nanos The latency to record, in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        this.buckets[bucket].increment();
+        this.count.increment();
+        this.sum.add(nanos);
+        this.max.accumulate(nanos);
+    }
+
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    public long getMax() {
+        return this.max.get();
+    }
+
+    public long getMean() {
+        long count = this.getCount();
+        return count == 0 ? 0 : this.sum.sum() / count;
+    }
+
+    /**
+     * @param percentile The percentile to find, between 0 and 100
+     * @return The upper bound of the bucket holding the given percentile, in nanoseconds
+     */
+    public long getPercentile(double percentile) {
+        long count = this.getCount();
+        long rank = (long) Math.ceil(count * percentile / 100.0);
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += this.buckets[i].sum();
+            if(seen >= rank && seen > 0) {
+                return Math.min(upper(i), this.getMax());
+            }
+        }
+
+        return this.getMax();
+    }
+
+    public String toJson() {
+        StringJoiner buckets = new StringJoiner(",", "[", "]");
+        for(int i = 0; i < BUCKETS; i++) {
+            long value = this.buckets[i].sum();
+            if(value > 0) {
+                buckets.add(String.format(Locale.ROOT, "{\"leMs\":%.3f,\"count\":%d}", AssetMetrics.millis(upper(i)), value));
+            }
+        }
+
+        return String.format(Locale.ROOT,
+                "{\"count\":%d,\"meanMs\":%.3f,\"p50Ms\":%.3f,\"p90Ms\":%.3f,\"p99Ms\":%.3f,\"maxMs\":%.3f,\"buckets\":%s}",
+                this.getCount(), AssetMetrics.millis(this.getMean()), AssetMetrics.millis(this.getPercentile(50)),
+                AssetMetrics.millis(this.getPercentile(90)), AssetMetrics.millis(this.getPercentile(99)),
+                AssetMetrics.millis(this.getMax()), buckets
+        );
+    }
+
+    private static long upper(int bucket) {
+        return (2L << bucket) * 1000;
+    }
+}
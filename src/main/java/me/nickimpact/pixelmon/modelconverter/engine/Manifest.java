@@ -0,0 +1,187 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import com.google.common.hash.Hashing;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records the state of every input converted into an output directory, along with the output it
+ * produced, so a later run with the same translator can skip inputs which have not changed.
+ *
+ * <p>The manifest is stored as a tab separated text file in the root of the output directory.</p>
+ */
+public class Manifest {
+
+    public static final String FILE_NAME = ".pmc-manifest";
+
+    private static final String HEADER = "#pmc-manifest 1 ";
+
+    private final String translator;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public Manifest(String translator) {
+        this.translator = translator;
+    }
+
+    /**
+     * Loads the manifest stored in the given file. If the file does not exist, or was written for a
+     * different translator, an empty manifest is returned instead.
+     *
+     * @param file The manifest file
+     * @param translator The name of the translator the manifest should belong to
+     * @return The loaded manifest
+     * @throws IOException If the file could not be read
+     */
+    public static Manifest load(Path file, String translator) throws IOException {
+        Manifest manifest = new Manifest(translator);
+        if(!Files.isRegularFile(file)) {
+            return manifest;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            if(!(HEADER + translator).equals(reader.readLine())) {
+                return manifest;
+            }
+
+            String line;
+            while((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if(parts.length != 6) {
+                    continue;
+                }
+
+                try {
+                    manifest.entries.put(parts[0], new Entry(
+                            Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3],
+                            Long.parseLong(parts[4]), Long.parseLong(parts[5])
+                    ));
+                } catch (NumberFormatException ignored) {
+                    // A damaged entry simply means the input is converted again
+                }
+            }
+        }
+
+        return manifest;
+    }
+
+    /**
+     * Writes the manifest to the given file, replacing it atomically where the file system allows.
+     *
+     * @param file The manifest file
+     * @throws IOException If the manifest could not be written
+     */
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(HEADER + this.translator);
+            writer.newLine();
+            for(Map.Entry<String, Entry> entry : new TreeMap<>(this.entries).entrySet()) {
+                Entry value = entry.getValue();
+                writer.write(entry.getKey() + '\t' + value.size + '\t' + value.modified + '\t' + value.hash + '\t' + value.outputSize + '\t' + value.outputModified);
+                writer.newLine();
+            }
+        }
+
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public Entry get(String source) {
+        return this.entries.get(source);
+    }
+
+    public void put(String source, Entry entry) {
+        this.entries.put(source, entry);
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * Hashes the contents of a file, for comparison against the hash stored in an entry.
+     *
+     * @param file The file to hash
+     * @return The hash of the file, as a hex string
+     * @throws IOException If the file could not be read
+     */
+    public static String hash(File file) throws IOException {
+        return com.google.common.io.Files.asByteSource(file).hash(Hashing.murmur3_128()).toString();
+    }
+
+    /**
+     * Hashes the remaining bytes of a buffer, such as a file already loaded for conversion, giving the
+     * same result as {@link #hash(File)} would for a file of the same contents. The position of the
+     * buffer is left untouched.
+     *
+     * @param data The bytes to hash
+     * @return The hash of the bytes, as a hex string
+     */
+    public static String hash(ByteBuffer data) {
+        return Hashing.murmur3_128().hashBytes(data.duplicate()).toString();
+    }
+
+    public static class Entry {
+
+        private final long size;
+        private final long modified;
+        private final String hash;
+        private final long outputSize;
+        private final long outputModified;
+
+        public Entry(long size, long modified, String hash, long outputSize, long outputModified) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.outputSize = outputSize;
+            this.outputModified = outputModified;
+        }
+
+        /**
+         * Creates an entry for an input which has just been converted into the given output.
+         */
+        public static Entry of(long size, long modified, String hash, File output) {
+            return new Entry(size, modified, hash, output.length(), output.lastModified());
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        public long getModified() {
+            return this.modified;
+        }
+
+        public String getHash() {
+            return this.hash;
+        }
+
+        /**
+         * @return Whether the output recorded by this entry is still present and untouched
+         */
+        public boolean matchesOutput(File output) {
+            return output.isFile() && output.length() == this.outputSize && output.lastModified() == this.outputModified;
+        }
+
+        /**
+         * @return A copy of this entry with the given input modification time
+         */
+        public Entry withModified(long modified) {
+            return new Entry(this.size, modified, this.hash, this.outputSize, this.outputModified);
+        }
+    }
+}
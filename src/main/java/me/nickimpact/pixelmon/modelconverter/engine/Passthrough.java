@@ -0,0 +1,134 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import com.google.common.io.ByteStreams;
+import me.nickimpact.pixelmon.modelconverter.ModelConverter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * Copies assets which need no conversion, such as {@code .smd} and {@code .pqc} files, from the input
+ * to the output with as little copying through the heap as possible.
+ */
+public final class Passthrough {
+
+    /**
+     * The name passthrough copies are known by in metrics, in place of a translator.
+     */
+    public static final String NAME = "Passthrough";
+
+    private Passthrough() {}
+
+    /**
+     * Copies a file, replacing the target if it already exists. If hard linking is enabled and both
+     * files live on the same file system, the target is linked to the source rather than copied.
+     * Otherwise the bytes are moved with {@link FileChannel#transferTo}, letting the operating system
+     * copy them without passing through the heap.
+     *
+     * <p>A target left linked to its source by an earlier run is already up to date, and is left alone.
+     * Any other existing target is deleted rather than truncated, so a copy never writes through a link
+     * into some other file.</p>
+     *
+     * @param source The file to copy
+     * @param target The destination of the copy
+     * @throws IOException If the file could not be copied, or shrank while being copied
+     */
+    public static void copy(Path source, Path target) throws IOException {
+        if(Files.exists(target) && Files.isSameFile(source, target)) {
+            return;
+        }
+
+        if(ModelConverter.link && link(source, target)) {
+            return;
+        }
+
+        Files.deleteIfExists(target);
+        try (FileChannel in = FileChannel.open(source, READ); FileChannel out = FileChannel.open(target, WRITE, CREATE_NEW)) {
+            long size = in.size();
+            long position = 0;
+            while(position < size) {
+                long count = in.transferTo(position, size - position, out);
+                if(count <= 0) {
+                    throw new IOException(source + " shrank while being copied");
+                }
+                position += count;
+            }
+        }
+    }
+
+    /**
+     * Copies a jar entry to a file, replacing the target if it already exists.
+     *
+     * @param jar The jar holding the entry
+     * @param entry The entry to copy
+     * @param target The destination of the copy
+     * @throws IOException If the entry could not be copied
+     */
+    public static void copy(JarFile jar, JarEntry entry, Path target) throws IOException {
+        write(read(jar, entry), target);
+    }
+
+    /**
+     * Reads the whole of a jar entry. When the entry records its uncompressed size, it is inflated
+     * straight into a buffer of exactly that size, rather than one which grows as it is filled.
+     *
+     * @param jar The jar holding the entry
+     * @param entry The entry to read
+     * @return The uncompressed contents of the entry
+     * @throws IOException If the entry could not be read
+     */
+    public static byte[] read(JarFile jar, JarEntry entry) throws IOException {
+        try (InputStream in = jar.getInputStream(entry)) {
+            long size = entry.getSize();
+            if(size < 0 || size > Integer.MAX_VALUE) {
+                return ByteStreams.toByteArray(in);
+            }
+
+            byte[] data = new byte[(int) size];
+            ByteStreams.readFully(in, data);
+            return data;
+        }
+    }
+
+    /**
+     * Writes a buffer to a file in a single channel write, replacing the file if it already exists. The
+     * old file is deleted rather than truncated, in case it is a link left by {@link #copy(Path, Path)}.
+     *
+     * @param data The bytes to write
+     * @param target The file to write to
+     * @throws IOException If the file could not be written
+     */
+    public static void write(byte[] data, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try (FileChannel out = FileChannel.open(target, WRITE, CREATE_NEW)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while(buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        }
+    }
+
+    private static boolean link(Path source, Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if(!Files.getFileStore(source).equals(Files.getFileStore(parent))) {
+            return false;
+        }
+
+        try {
+            Files.deleteIfExists(target);
+            Files.createLink(target, source);
+            return true;
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package me.nickimpact.pixelmon.modelconverter.engine;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams which keep track of the time spent blocked in the stream they wrap, so that the I/O of a
+ * conversion can be told apart from the work of the translator, without buffering either side. Input is
+ * loaded up front by the engine, so only output needs timing.
+ */
+final class Timed {
+
+    private Timed() {}
+
+    static class Output extends FilterOutputStream {
+
+        private long nanos;
+        private long bytes;
+
+        Output(OutputStream out) {
+            super(out);
+        }
+
+        long getNanos() {
+            return this.nanos;
+        }
+
+        long getBytes() {
+            return this.bytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = System.nanoTime();
+            try {
+                this.out.write(b);
+                this.bytes++;
+            } finally {
+                this.nanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            try {
+                this.out.write(b, off, len);
+                this.bytes += len;
+            } finally {
+                this.nanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = System.nanoTime();
+            try {
+                this.out.flush();
+            } finally {
+                this.nanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            long start = System.nanoTime();
+            try {
+                this.out.close();
+            } finally {
+                this.nanos += System.nanoTime() - start;
+            }
+        }
+    }
+}
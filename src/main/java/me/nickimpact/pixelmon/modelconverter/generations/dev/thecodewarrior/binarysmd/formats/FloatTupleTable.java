@@ -0,0 +1,141 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats;
+
+import org.jetbrains.annotations.NotNull;
+import org.msgpack.core.MessagePacker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Dedupes fixed size tuples of floats, such as positions or UVs, handing each distinct tuple an index in
+ * the order it was first added. Tuples are stored back to back in a single float array and found through
+ * an open addressing table of indices keyed on their bits, so adding a tuple allocates nothing.
+ *
+ * <p>Tuples are equal when their floats have the same {@link Float#floatToIntBits(float)}, just as
+ * {@link Float#compare(float, float)} would have it, so {@code 0.0} and {@code -0.0} are kept apart
+ * while all NaNs are one and the same.</p>
+ */
+public final class FloatTupleTable {
+
+    private final int width;
+    private float[] values;
+    private int size;
+
+    /** The index of the tuple in each slot plus one, or zero for an empty slot */
+    private int[] slots;
+
+    /**
+     * @param width The number of floats in each tuple
+     */
+    public FloatTupleTable(int width) {
+        this.width = width;
+        this.values = new float[width * 16];
+        this.slots = new int[32];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return The given float of the tuple at the given index
+     */
+    public float value(int index, int component) {
+        return this.values[index * this.width + component];
+    }
+
+    /**
+     * @return The index of the pair, which is added if it has not been seen before
+     */
+    public int add(float a, float b) {
+        return this.add(a, b, 0);
+    }
+
+    /**
+     * @return The index of the tuple, which is added if it has not been seen before. Only the first
+     *         {@code width} floats are used.
+     */
+    public int add(float a, float b, float c) {
+        int bitsA = Float.floatToIntBits(a);
+        int bitsB = Float.floatToIntBits(b);
+        int bitsC = this.width > 2 ? Float.floatToIntBits(c) : 0;
+
+        int mask = this.slots.length - 1;
+        int slot = hash(bitsA, bitsB, bitsC) & mask;
+        int entry;
+        while((entry = this.slots[slot]) != 0) {
+            int offset = (entry - 1) * this.width;
+            if(Float.floatToIntBits(this.values[offset]) == bitsA
+                    && Float.floatToIntBits(this.values[offset + 1]) == bitsB
+                    && (this.width < 3 || Float.floatToIntBits(this.values[offset + 2]) == bitsC)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int index = this.size++;
+        int offset = index * this.width;
+        if(offset + this.width > this.values.length) {
+            this.values = Arrays.copyOf(this.values, this.values.length * 2);
+        }
+        this.values[offset] = a;
+        this.values[offset + 1] = b;
+        if(this.width > 2) {
+            this.values[offset + 2] = c;
+        }
+
+        this.slots[slot] = index + 1;
+        if(this.size * 2 > this.slots.length) {
+            this.rehash();
+        }
+        return index;
+    }
+
+    /**
+     * Packs the count of tuples, followed by the floats of every tuple in order.
+     */
+    public void write(@NotNull MessagePacker out) throws IOException {
+        out.packInt(this.size);
+        for(int i = 0; i < this.size * this.width; i++) {
+            out.packFloat(this.values[i]);
+        }
+    }
+
+    /**
+     * Packs the floats of every tuple in order as a single binary value, little endian, from which the
+     * count of tuples follows from its length.
+     */
+    public void writePacked(@NotNull MessagePacker out) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(this.size * this.width * 4).order(ByteOrder.LITTLE_ENDIAN);
+        data.asFloatBuffer().put(this.values, 0, this.size * this.width);
+        out.packBinaryHeader(data.capacity());
+        out.writePayload(data.array());
+    }
+
+    private void rehash() {
+        int[] slots = new int[this.slots.length * 2];
+        int mask = slots.length - 1;
+        for(int index = 0; index < this.size; index++) {
+            int offset = index * this.width;
+            int slot = hash(
+                    Float.floatToIntBits(this.values[offset]),
+                    Float.floatToIntBits(this.values[offset + 1]),
+                    this.width > 2 ? Float.floatToIntBits(this.values[offset + 2]) : 0
+            ) & mask;
+            while(slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = index + 1;
+        }
+        this.slots = slots;
+    }
+
+    private static int hash(int a, int b, int c) {
+        int h = a * 0x9E3779B1;
+        h = (h ^ b) * 0x85EBCA77;
+        h = (h ^ c) * 0xC2B2AE3D;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,41 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats;
+
+import org.jetbrains.annotations.NotNull;
+import org.msgpack.core.MessagePacker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Collects a run of ints, and floats stored as their bits, to be packed as a single little endian binary
+ * value rather than one msgpack value each, for versions 2 and 3 of the SMDX format.
+ */
+final class PackedInts {
+
+    private int[] data;
+    private int size;
+
+    PackedInts(int capacity) {
+        this.data = new int[Math.max(capacity, 1)];
+    }
+
+    void add(int value) {
+        if(this.size == this.data.length) {
+            this.data = Arrays.copyOf(this.data, this.data.length * 2);
+        }
+        this.data[this.size++] = value;
+    }
+
+    void addFloat(float value) {
+        this.add(Float.floatToRawIntBits(value));
+    }
+
+    void write(@NotNull MessagePacker out) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(this.size * 4).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asIntBuffer().put(this.data, 0, this.size);
+        out.packBinaryHeader(bytes.capacity());
+        out.writePayload(bytes.array());
+    }
+}
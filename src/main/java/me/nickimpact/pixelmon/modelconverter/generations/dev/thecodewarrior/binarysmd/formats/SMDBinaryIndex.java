@@ -0,0 +1,181 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.msgpack.core.MessageUnpacker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Opens an smdx file without decoding it, and only decodes the blocks which are asked for, the first
+ * time they are asked for. Version 3 files carry a directory of their blocks, so each block is read
+ * straight from its offset, and asking for the skeleton of an animation never touches its triangles.
+ * Version 1 and 2 files have no directory, so they are decoded in full when opened.
+ *
+ * <pre>{@code
+ * SMDBinaryIndex index = SMDBinaryIndex.open(path);
+ * NodesBlock nodes = index.getFirst(NodesBlock.class);
+ * }</pre>
+ *
+ * <p>Indexes cache the blocks they have decoded, and are not safe for use by several threads at once.</p>
+ */
+public class SMDBinaryIndex {
+
+    /** The class of each block type, by the type byte which starts it */
+    private static final List<Class<? extends SMDFileBlock>> TYPES = Arrays.asList(
+            NodesBlock.class, SkeletonBlock.class, TrianglesBlock.class, VertexAnimationBlock.class
+    );
+
+    private final SMDBinaryReader reader = new SMDBinaryReader();
+    private final ByteBuffer data;
+    private final int version;
+    private final int start;
+    private final byte[] types;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final SMDFileBlock[] blocks;
+
+    private SMDBinaryIndex(ByteBuffer data) throws IOException {
+        this.data = data.duplicate();
+
+        MessageUnpacker unpacker = SMDBinaryReader.unpacker(this.data);
+        this.version = SMDBinaryReader.readHeader(unpacker);
+        int count = unpacker.unpackInt();
+        this.types = new byte[count];
+        this.offsets = new int[count];
+        this.lengths = new int[count];
+        this.blocks = new SMDFileBlock[count];
+
+        if(this.version != SMDBinaryWriter.INDEXED_VERSION) {
+            SMDFile file = this.reader.read(SMDBinaryReader.unpacker(this.data));
+            for(int i = 0; i < count; i++) {
+                this.blocks[i] = i < file.blocks.size() ? file.blocks.get(i) : null;
+                this.types[i] = this.blocks[i] != null ? SMDBinaryWriter.type(this.blocks[i]) : -1;
+            }
+            this.start = -1;
+            return;
+        }
+
+        for(int i = 0; i < count; i++) {
+            this.types[i] = unpacker.unpackByte();
+            this.offsets[i] = unpacker.unpackInt();
+            this.lengths[i] = unpacker.unpackInt();
+        }
+        this.start = this.data.position() + (int) unpacker.getTotalReadBytes();
+
+        for(int i = 0; i < count; i++) {
+            if(this.offsets[i] < 0 || this.lengths[i] < 0 || (long) this.start + this.offsets[i] + this.lengths[i] > this.data.limit()) {
+                throw new IllegalArgumentException("Block " + i + " of the smdx directory lies outside of the file");
+            }
+        }
+    }
+
+    /**
+     * Maps the file and reads its header and block directory.
+     */
+    @NotNull
+    public static SMDBinaryIndex open(@NotNull Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return open(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Reads the header and block directory from the remaining bytes of the buffer, without moving its
+     * position. The buffer is read from again whenever a block is first asked for.
+     */
+    @NotNull
+    public static SMDBinaryIndex open(@NotNull ByteBuffer data) throws IOException {
+        return new SMDBinaryIndex(data);
+    }
+
+    public int getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return The number of blocks in the file
+     */
+    public int size() {
+        return this.blocks.length;
+    }
+
+    /**
+     * @return The class of the block at the given index, or null if its type is unknown
+     */
+    @Nullable
+    public Class<? extends SMDFileBlock> getType(int index) {
+        int type = this.types[index];
+        return type >= 0 && type < TYPES.size() ? TYPES.get(type) : null;
+    }
+
+    /**
+     * @return The block at the given index, decoded if it has not been already, or null if its type is unknown
+     */
+    @Nullable
+    public SMDFileBlock getBlock(int index) throws IOException {
+        if(this.blocks[index] == null && this.start >= 0) {
+            ByteBuffer block = this.data.duplicate();
+            block.position(this.start + this.offsets[index]);
+            block.limit(this.start + this.offsets[index] + this.lengths[index]);
+
+            MessageUnpacker unpacker = SMDBinaryReader.unpacker(block);
+            this.blocks[index] = this.reader.readBlock(unpacker.unpackByte(), unpacker, true);
+        }
+
+        return this.blocks[index];
+    }
+
+    /**
+     * @return Every block of the given type, in the order they appear in the file, leaving all others undecoded
+     */
+    @NotNull
+    public <T extends SMDFileBlock> List<T> getBlocks(@NotNull Class<T> type) throws IOException {
+        List<T> blocks = new ArrayList<>();
+        for(int i = 0; i < this.blocks.length; i++) {
+            if(this.getType(i) == type) {
+                blocks.add(type.cast(this.getBlock(i)));
+            }
+        }
+
+        return blocks;
+    }
+
+    /**
+     * @return The first block of the given type, or null if the file has none
+     */
+    @Nullable
+    public <T extends SMDFileBlock> T getFirst(@NotNull Class<T> type) throws IOException {
+        for(int i = 0; i < this.blocks.length; i++) {
+            if(this.getType(i) == type) {
+                return type.cast(this.getBlock(i));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @return Every block of the file, decoding any which have not been already
+     */
+    @NotNull
+    public SMDFile toFile() throws IOException {
+        SMDFile file = new SMDFile();
+        for(int i = 0; i < this.blocks.length; i++) {
+            SMDFileBlock block = this.getBlock(i);
+            if(block != null) {
+                file.blocks.add(block);
+            }
+        }
+
+        return file;
+    }
+}
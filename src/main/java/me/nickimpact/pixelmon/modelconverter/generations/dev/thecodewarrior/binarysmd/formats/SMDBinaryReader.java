@@ -3,18 +3,86 @@ package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.bin
 import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.*;
 import org.jetbrains.annotations.NotNull;
 import org.msgpack.core.MessageInsufficientBufferException;
+import org.msgpack.core.MessagePack;
 import org.msgpack.core.MessageUnpacker;
+import org.msgpack.core.buffer.MessageBuffer;
+import org.msgpack.core.buffer.MessageBufferInput;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
-import java.util.Objects;
 
+/**
+ * Reads SMDX files of any version, see {@link SMDBinaryWriter} for the differences between them.
+ */
 public class SMDBinaryReader {
 
+    /** Whether msgpack is able to unpack straight out of a direct buffer, such as a mapped file, on this JVM */
+    private static final boolean DIRECT = supportsDirect();
+
+    private static final int CHUNK_SIZE = 1 << 13;
+
+    /**
+     * Reads the remaining bytes of the buffer, without moving its position.
+     *
+     * @see #unpacker(ByteBuffer)
+     */
+    public SMDFile read(@NotNull ByteBuffer data) throws IOException {
+        return this.read(unpacker(data));
+    }
+
+    /**
+     * Creates an unpacker over the remaining bytes of the buffer, which unpacks them in place, without
+     * moving the position of the buffer. Direct buffers, such as mapped files, can only be unpacked in
+     * place on JVMs where msgpack supports it, and are otherwise copied a chunk at a time.
+     */
+    @NotNull
+    public static MessageUnpacker unpacker(@NotNull ByteBuffer data) {
+        if(data.hasArray()) {
+            return MessagePack.newDefaultUnpacker(data.array(), data.arrayOffset() + data.position(), data.remaining());
+        } else if(DIRECT) {
+            return MessagePack.newDefaultUnpacker(data.duplicate());
+        }
+
+        return MessagePack.newDefaultUnpacker(new ChunkedInput(data.duplicate()));
+    }
+
     // | magic `SMDX` | format version (byte) |
     // | block count (int) |
+    // | block directory, version 3 only, see SMDBinaryWriter |
     //   | block |
     public SMDFile read(@NotNull MessageUnpacker data) throws IOException {
+        int version = readHeader(data);
+        boolean packed = version >= SMDBinaryWriter.PACKED_VERSION;
+
+        SMDFile file = new SMDFile();
+        int blockCount = data.unpackInt();
+        if(version == SMDBinaryWriter.INDEXED_VERSION) {
+            // Blocks are read in order, so the directory is of no use here
+            for (int i = 0; i < blockCount; i++) {
+                data.unpackByte();
+                data.unpackInt();
+                data.unpackInt();
+            }
+        }
+
+        for (int i = 0; i < blockCount; i++) {
+            SMDFileBlock block = this.readBlock(data.unpackByte(), data, packed);
+            if(block != null) {
+                file.blocks.add(block);
+            }
+        }
+
+        return file;
+    }
+
+    /**
+     * Reads and checks the magic constant and version which start every smdx file.
+     *
+     * @return The version of the file
+     */
+    static int readHeader(@NotNull MessageUnpacker data) throws IOException {
         byte[] fileMagic = new byte[SMDBinaryWriter.MAGIC_BYTES.length];
         try {
             data.readPayload(fileMagic);
@@ -25,29 +93,32 @@ public class SMDBinaryReader {
             throw new IllegalArgumentException("Passed data is not an smdx file. Missing initial " +
                     "magic constant `" + SMDBinaryWriter.MAGIC + "`");
         }
-        int version = data.unpackByte(); // unused at the moment
-
-        SMDFile file = new SMDFile();
-        int blockCount = data.unpackInt();
-        for (int i = 0; i < blockCount; i++) {
-            int block = data.unpackByte();
-            switch(block) {
-                case 0:
-                    file.blocks.add(readNodesBlock(data));
-                    break;
-                case 1:
-                    file.blocks.add(readSkeletonBlock(data));
-                    break;
-                case 2:
-                    file.blocks.add(readTrianglesBlock(data));
-                    break;
-                case 3:
-                    file.blocks.add(readVertexAnimationBlock(data));
-                    break;
-            }
+        int version = data.unpackByte();
+        if(version < SMDBinaryWriter.VERSION || version > SMDBinaryWriter.INDEXED_VERSION) {
+            throw new IllegalArgumentException("Unsupported smdx version: " + version);
         }
 
-        return file;
+        return version;
+    }
+
+    /**
+     * Reads the body of a block, following its type.
+     *
+     * @return The block, or null if the type is unknown
+     */
+    SMDFileBlock readBlock(int type, @NotNull MessageUnpacker data, boolean packed) throws IOException {
+        switch(type) {
+            case 0:
+                return readNodesBlock(data);
+            case 1:
+                return readSkeletonBlock(data, packed);
+            case 2:
+                return readTrianglesBlock(data, packed);
+            case 3:
+                return readVertexAnimationBlock(data, packed);
+            default:
+                return null;
+        }
     }
 
     // | block type = 0 (byte) | count (int) |
@@ -69,28 +140,39 @@ public class SMDBinaryReader {
     // | keyframe count (int) |
     //   | keyframe time (int) | bone count (int) |
     //    | bone ID (int) | pos index (int) | rot index (int) |
-    private SkeletonBlock readSkeletonBlock(@NotNull MessageUnpacker file) throws IOException {
+    private SkeletonBlock readSkeletonBlock(@NotNull MessageUnpacker file, boolean packed) throws IOException {
         SkeletonBlock block = new SkeletonBlock();
 
-        LookupTable<Vector3> vectors = new LookupTable<>();
-
-        int vectorCount = file.unpackInt();
-        for (int i = 0; i < vectorCount; i++) {
-            vectors.add(new Vector3(file.unpackFloat(), file.unpackFloat(), file.unpackFloat()));
-        }
+        float[] vectors = packed ? readPackedPool(file, 3) : readPool(file, 3);
 
         int keyframeCount = file.unpackInt();
         for (int i = 0; i < keyframeCount; i++) {
             SkeletonBlock.Keyframe keyframe = new SkeletonBlock.Keyframe(file.unpackInt());
+            if(packed) {
+                int[] states = readPackedInts(file, 3);
+                for (int j = 0; j < states.length; j += 3) {
+                    int pos = states[j + 1] * 3;
+                    int rot = states[j + 2] * 3;
+                    keyframe.states.add(
+                            new SkeletonBlock.BoneState(states[j],
+                                    vectors[pos], vectors[pos + 1], vectors[pos + 2],
+                                    vectors[rot], vectors[rot + 1], vectors[rot + 2]
+                            )
+                    );
+                }
+                block.keyframes.add(keyframe);
+                continue;
+            }
+
             int boneCount = file.unpackInt();
             for (int j = 0; j < boneCount; j++) {
                 int boneID = file.unpackInt();
-                Vector3 pos = vectors.value(file.unpackInt());
-                Vector3 rot = vectors.value(file.unpackInt());
+                int pos = file.unpackInt() * 3;
+                int rot = file.unpackInt() * 3;
                 keyframe.states.add(
                         new SkeletonBlock.BoneState(boneID,
-                                pos.x, pos.y, pos.z,
-                                rot.x, rot.y, rot.z
+                                vectors[pos], vectors[pos + 1], vectors[pos + 2],
+                                vectors[rot], vectors[rot + 1], vectors[rot + 2]
                         )
                 );
             }
@@ -114,43 +196,65 @@ public class SMDBinaryReader {
     //     | link bone ID (int) | link weight (float) |
     //   | parent bone (int) | pos index (int) | normal index (int) | UV index (int) | link count (int) |
     //     | link bone ID (int) | link weight (float) |
-    private TrianglesBlock readTrianglesBlock(@NotNull MessageUnpacker file) throws IOException {
+    private TrianglesBlock readTrianglesBlock(@NotNull MessageUnpacker file, boolean packed) throws IOException {
         TrianglesBlock block = new TrianglesBlock();
 
-        LookupTable<String> materials = new LookupTable<>();
-        int count = file.unpackInt();
-        for (int i = 0; i < count; i++) {
-            materials.add(file.unpackString());
+        String[] materials = new String[file.unpackInt()];
+        for (int i = 0; i < materials.length; i++) {
+            materials[i] = file.unpackString();
         }
 
-        LookupTable<Vector3> vectors = new LookupTable<>();
-        count = file.unpackInt();
-        for (int i = 0; i < count; i++) {
-            vectors.add(new Vector3(file.unpackFloat(), file.unpackFloat(), file.unpackFloat()));
-        }
+        float[] vectors = packed ? readPackedPool(file, 3) : readPool(file, 3);
+        float[] uvs = packed ? readPackedPool(file, 2) : readPool(file, 2);
 
-        LookupTable<TexCoord> uvs = new LookupTable<>();
-        count = file.unpackInt();
-        for (int i = 0; i < count; i++) {
-            uvs.add(new TexCoord(file.unpackFloat(), file.unpackFloat()));
+        int count = file.unpackInt();
+        if(packed) {
+            int[] triangles = readPackedInts(file, 1);
+            int next = 0;
+            for (int i = 0; i < count; i++) {
+                String material = materials[triangles[next++]];
+                TrianglesBlock.Vertex[] vertices = new TrianglesBlock.Vertex[3];
+                for (int j = 0; j < vertices.length; j++) {
+                    int parent = triangles[next++];
+                    int pos = triangles[next++] * 3;
+                    int norm = triangles[next++] * 3;
+                    int uv = triangles[next++] * 2;
+                    TrianglesBlock.Vertex vertex = new TrianglesBlock.Vertex(parent,
+                            vectors[pos], vectors[pos + 1], vectors[pos + 2],
+                            vectors[norm], vectors[norm + 1], vectors[norm + 2],
+                            uvs[uv], uvs[uv + 1]
+                    );
+                    int linkCount = triangles[next++];
+                    for (int k = 0; k < linkCount; k++) {
+                        vertex.links.add(new TrianglesBlock.Link(triangles[next++], Float.intBitsToFloat(triangles[next++])));
+                    }
+                    vertices[j] = vertex;
+                }
+                block.triangles.add(new TrianglesBlock.Triangle(
+                        material,
+                        vertices[0],
+                        vertices[1],
+                        vertices[2]
+                ));
+            }
+            return block;
         }
 
-        count = file.unpackInt();
         for (int i = 0; i < count; i++) {
-            String material = materials.value(file.unpackInt());
+            String material = materials[file.unpackInt()];
             TrianglesBlock.Vertex[] vertices = new TrianglesBlock.Vertex[3];
             for (int j = 0; j < vertices.length; j++) {
 
                 //   | parent bone (int) | pos index (int) | normal index (int) | UV index (int) | link count (int) |
                 //     | link bone ID (int) | link weight (float) |
                 int parent = file.unpackInt();
-                Vector3 pos = vectors.value(file.unpackInt());
-                Vector3 norm = vectors.value(file.unpackInt());
-                TexCoord uv = uvs.value(file.unpackInt());
+                int pos = file.unpackInt() * 3;
+                int norm = file.unpackInt() * 3;
+                int uv = file.unpackInt() * 2;
                 TrianglesBlock.Vertex vertex = new TrianglesBlock.Vertex(parent,
-                        pos.x, pos.y, pos.z,
-                        norm.x, norm.y, norm.z,
-                        uv.u, uv.v
+                        vectors[pos], vectors[pos + 1], vectors[pos + 2],
+                        vectors[norm], vectors[norm + 1], vectors[norm + 2],
+                        uvs[uv], uvs[uv + 1]
                 );
                 int linkCount = file.unpackInt();
                 for (int k = 0; k < linkCount; k++) {
@@ -174,28 +278,39 @@ public class SMDBinaryReader {
     // | frame count (int) |
     //   | frame time (int) | vertex count (int) |
     //     | vertex ID (int) | pos index (int) | normal index (int) |
-    private VertexAnimationBlock readVertexAnimationBlock(@NotNull MessageUnpacker file) throws IOException {
+    private VertexAnimationBlock readVertexAnimationBlock(@NotNull MessageUnpacker file, boolean packed) throws IOException {
         VertexAnimationBlock block = new VertexAnimationBlock();
 
-        LookupTable<Vector3> vectors = new LookupTable<>();
-
-        int vectorCount = file.unpackInt();
-        for (int i = 0; i < vectorCount; i++) {
-            vectors.add(new Vector3(file.unpackFloat(), file.unpackFloat(), file.unpackFloat()));
-        }
+        float[] vectors = packed ? readPackedPool(file, 3) : readPool(file, 3);
 
         int keyframeCount = file.unpackInt();
         for (int i = 0; i < keyframeCount; i++) {
             VertexAnimationBlock.Keyframe keyframe = new VertexAnimationBlock.Keyframe(file.unpackInt());
+            if(packed) {
+                int[] states = readPackedInts(file, 3);
+                for (int j = 0; j < states.length; j += 3) {
+                    int pos = states[j + 1] * 3;
+                    int norm = states[j + 2] * 3;
+                    keyframe.states.add(
+                            new VertexAnimationBlock.VertexState(states[j],
+                                    vectors[pos], vectors[pos + 1], vectors[pos + 2],
+                                    vectors[norm], vectors[norm + 1], vectors[norm + 2]
+                            )
+                    );
+                }
+                block.keyframes.add(keyframe);
+                continue;
+            }
+
             int boneCount = file.unpackInt();
             for (int j = 0; j < boneCount; j++) {
                 int vertexID = file.unpackInt();
-                Vector3 pos = vectors.value(file.unpackInt());
-                Vector3 norm = vectors.value(file.unpackInt());
+                int pos = file.unpackInt() * 3;
+                int norm = file.unpackInt() * 3;
                 keyframe.states.add(
                         new VertexAnimationBlock.VertexState(vertexID,
-                                pos.x, pos.y, pos.z,
-                                norm.x, norm.y, norm.z
+                                vectors[pos], vectors[pos + 1], vectors[pos + 2],
+                                vectors[norm], vectors[norm + 1], vectors[norm + 2]
                         )
                 );
             }
@@ -205,53 +320,89 @@ public class SMDBinaryReader {
         return block;
     }
 
-    private static class Vector3 {
-        final float x, y, z;
-
-        public Vector3(float x, float y, float z) {
-            this.x = x;
-            this.y = y;
-            this.z = z;
+    /**
+     * Reads a pool of vectors or UVs, preceded by its count, into a single array holding the floats of
+     * each entry back to back, so that entry {@code i} starts at {@code i * width}.
+     */
+    private static float[] readPool(@NotNull MessageUnpacker file, int width) throws IOException {
+        float[] pool = new float[file.unpackInt() * width];
+        for (int i = 0; i < pool.length; i++) {
+            pool[i] = file.unpackFloat();
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof Vector3)) return false;
-            Vector3 vector3 = (Vector3) o;
-            return Float.compare(vector3.x, x) == 0 &&
-                    Float.compare(vector3.y, y) == 0 &&
-                    Float.compare(vector3.z, z) == 0;
+        return pool;
+    }
+
+    /**
+     * Reads a version 2 or 3 pool, packed as a single binary value of little endian floats, straight into an
+     * array laid out as by {@link #readPool}.
+     */
+    private static float[] readPackedPool(@NotNull MessageUnpacker file, int width) throws IOException {
+        ByteBuffer data = readBinary(file, width);
+        float[] pool = new float[data.remaining() / 4];
+        data.asFloatBuffer().get(pool);
+        return pool;
+    }
+
+    /**
+     * Reads a version 2 or 3 run of indices, packed as a single binary value of little endian ints.
+     *
+     * @param width The number of ints in each entry of the run
+     */
+    private static int[] readPackedInts(@NotNull MessageUnpacker file, int width) throws IOException {
+        ByteBuffer data = readBinary(file, width);
+        int[] ints = new int[data.remaining() / 4];
+        data.asIntBuffer().get(ints);
+        return ints;
+    }
+
+    /**
+     * @return A view of the payload, which is only copied if it spans more than one of the unpacker's buffers
+     */
+    private static ByteBuffer readBinary(@NotNull MessageUnpacker file, int width) throws IOException {
+        int length = file.unpackBinaryHeader();
+        if(length % (width * 4) != 0) {
+            throw new IllegalArgumentException("Packed smdx data of " + length + " bytes does not hold a whole number of " + width + " value entries");
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(x, y, z);
+        return file.readPayloadAsReference(length).sliceAsByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static boolean supportsDirect() {
+        try {
+            MessageBuffer.wrap(ByteBuffer.allocateDirect(1));
+            return true;
+        } catch (RuntimeException e) {
+            return false;
         }
     }
 
-    private static class TexCoord {
-        final float u, v;
+    /**
+     * Feeds msgpack a direct buffer through a single reused heap array, for JVMs where it cannot read
+     * direct buffers itself.
+     */
+    private static class ChunkedInput implements MessageBufferInput {
 
-        public TexCoord(float u, float v) {
-            this.u = u;
-            this.v = v;
+        private final ByteBuffer data;
+        private final byte[] chunk;
+
+        private ChunkedInput(ByteBuffer data) {
+            this.data = data;
+            this.chunk = new byte[Math.min(CHUNK_SIZE, Math.max(1, data.remaining()))];
         }
 
         @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof TexCoord)) return false;
-            TexCoord texCoord = (TexCoord) o;
-            return Float.compare(texCoord.u, u) == 0 &&
-                    Float.compare(texCoord.v, v) == 0;
+        public MessageBuffer next() {
+            if(!this.data.hasRemaining()) {
+                return null;
+            }
+
+            int length = Math.min(this.chunk.length, this.data.remaining());
+            this.data.get(this.chunk, 0, length);
+            return MessageBuffer.wrap(this.chunk, 0, length);
         }
 
         @Override
-        public int hashCode() {
-            return Objects.hash(u, v);
-        }
+        public void close() {}
     }
 }
-
-
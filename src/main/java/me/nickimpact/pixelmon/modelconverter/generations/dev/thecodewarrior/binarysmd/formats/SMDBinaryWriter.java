@@ -2,37 +2,107 @@ package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.bin
 
 import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.*;
 import org.jetbrains.annotations.NotNull;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessagePack;
 import org.msgpack.core.MessagePacker;
+import org.msgpack.core.buffer.MessageBuffer;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.*;
 
+/**
+ * Writes SMDX files. Version 1 packs every float and index as its own msgpack value, and is what the mod
+ * itself reads. Version 2 packs the vector and UV pools, and the indices which refer to them, as little
+ * endian binary values instead, which can be read back in bulk. Version 3 packs its blocks the same way as
+ * version 2, and adds a directory of them so each can be read on its own.
+ */
 public class SMDBinaryWriter {
 
     public static String MAGIC = "SMDX";
     public static byte[] MAGIC_BYTES = MAGIC.getBytes(StandardCharsets.UTF_8);
 
+    public static final int VERSION = 1;
+    public static final int PACKED_VERSION = 2;
+    public static final int INDEXED_VERSION = 3;
+
+    private final int version;
+    private final boolean packed;
+
+    public SMDBinaryWriter() {
+        this(VERSION);
+    }
+
+    /**
+     * @param version The version of the format to write, one of {@link #VERSION}, {@link #PACKED_VERSION}
+     *                or {@link #INDEXED_VERSION}
+     */
+    public SMDBinaryWriter(int version) {
+        if(version < VERSION || version > INDEXED_VERSION) {
+            throw new IllegalArgumentException("Unsupported smdx version: " + version);
+        }
+        this.version = version;
+        this.packed = version >= PACKED_VERSION;
+    }
+
     // | magic `SMDX` | format version (byte) |
     // | block count (int) |
+    // | block directory, version 3 only |
+    //   | block type (byte) | offset (int) | length (int) |
     //   | block |
+    //
+    // Directory offsets are in bytes from the start of the first block, so any block can be read on its
+    // own, see SMDBinaryIndex.
     public void write(@NotNull SMDFile file, @NotNull MessagePacker packer) throws IOException {
         packer.writePayload(MAGIC_BYTES);
-        int version = 1; // unused at the moment
-        packer.packByte((byte) version);
+        packer.packByte((byte) this.version);
         packer.packInt(file.blocks.size());
+        if(this.version != INDEXED_VERSION) {
+            for(SMDFileBlock block : file.blocks) {
+                writeBlock(block, packer);
+            }
+            return;
+        }
+
+        MessageBufferPacker blocks = MessagePack.newDefaultBufferPacker();
         for(SMDFileBlock block : file.blocks) {
-            if(block instanceof NodesBlock)
-                writeNodesBlock((NodesBlock) block, packer);
-            if(block instanceof SkeletonBlock)
-                writeSkeletonBlock((SkeletonBlock) block, packer);
-            if(block instanceof TrianglesBlock)
-                writeTrianglesBlock((TrianglesBlock) block, packer);
-            if(block instanceof VertexAnimationBlock)
-                writeVertexAnimationBlock((VertexAnimationBlock) block, packer);
+            long offset = blocks.getTotalWrittenBytes();
+            writeBlock(block, blocks);
+            packer.packByte(type(block));
+            packer.packInt((int) offset);
+            packer.packInt((int) (blocks.getTotalWrittenBytes() - offset));
+        }
+
+        for(MessageBuffer buffer : blocks.toBufferList()) {
+            packer.writePayload(buffer.toByteArray());
         }
     }
 
+    private void writeBlock(@NotNull SMDFileBlock block, @NotNull MessagePacker packer) throws IOException {
+        if(block instanceof NodesBlock)
+            writeNodesBlock((NodesBlock) block, packer);
+        if(block instanceof SkeletonBlock)
+            writeSkeletonBlock((SkeletonBlock) block, packer);
+        if(block instanceof TrianglesBlock)
+            writeTrianglesBlock((TrianglesBlock) block, packer);
+        if(block instanceof VertexAnimationBlock)
+            writeVertexAnimationBlock((VertexAnimationBlock) block, packer);
+    }
+
+    /**
+     * @return The type byte which starts the given block
+     */
+    static byte type(@NotNull SMDFileBlock block) {
+        if(block instanceof NodesBlock)
+            return 0;
+        if(block instanceof SkeletonBlock)
+            return 1;
+        if(block instanceof TrianglesBlock)
+            return 2;
+        if(block instanceof VertexAnimationBlock)
+            return 3;
+        throw new IllegalArgumentException("Unknown block type: " + block.getClass().getName());
+    }
+
     // | block type = 0 (byte) | count (int) |
     //   | id (int) | name (string) | parent (int) |
     private void writeNodesBlock(@NotNull NodesBlock block, @NotNull MessagePacker out) throws IOException {
@@ -52,20 +122,53 @@ public class SMDBinaryWriter {
     // | keyframe count (int) |
     //   | keyframe time (int) | bone count (int) |
     //    | bone ID (int) | pos index (int) | rot index (int) |
+    //
+    // version 2 and 3:
+    // | block type = 1 (byte) |
+    // | vectors (binary, little endian) |
+    //   | vectorX (float) | vectorY (float) | vectorZ (float) |
+    // | keyframe count (int) |
+    //   | keyframe time (int) |
+    //   | bones (binary, little endian) |
+    //     | bone ID (int) | pos index (int) | rot index (int) |
     private void writeSkeletonBlock(@NotNull SkeletonBlock block, @NotNull MessagePacker out) throws IOException {
         out.packByte((byte) 1);
 
-        LookupTable<Vector3> vectors = new LookupTable<>();
+        FloatTupleTable vectors = new FloatTupleTable(3);
+        int count = 0;
+        for(SkeletonBlock.Keyframe keyframe : block.keyframes) {
+            count += keyframe.states.size();
+        }
 
+        // The pos and rot index of every state, in order
+        int[] indices = new int[count * 2];
+        int next = 0;
         for(SkeletonBlock.Keyframe keyframe : block.keyframes) {
             for (SkeletonBlock.BoneState state : keyframe.states) {
-                vectors.add(new Vector3(state.posX, state.posY, state.posZ));
-                vectors.add(new Vector3(state.rotX, state.rotY, state.rotZ));
+                indices[next++] = vectors.add(state.posX, state.posY, state.posZ);
+                indices[next++] = vectors.add(state.rotX, state.rotY, state.rotZ);
             }
         }
 
-        writeVectors(vectors, out);
+        next = 0;
+        if(this.packed) {
+            vectors.writePacked(out);
+            out.packInt(block.keyframes.size());
+            for(SkeletonBlock.Keyframe keyframe : block.keyframes) {
+                out.packInt(keyframe.time);
+
+                PackedInts states = new PackedInts(keyframe.states.size() * 3);
+                for (SkeletonBlock.BoneState state : keyframe.states) {
+                    states.add(state.bone);
+                    states.add(indices[next++]);
+                    states.add(indices[next++]);
+                }
+                states.write(out);
+            }
+            return;
+        }
 
+        vectors.write(out);
         out.packInt(block.keyframes.size());
         for(SkeletonBlock.Keyframe keyframe : block.keyframes) {
             out.packInt(keyframe.time);
@@ -73,8 +176,8 @@ public class SMDBinaryWriter {
             out.packInt(keyframe.states.size());
             for (SkeletonBlock.BoneState state : keyframe.states) {
                 out.packInt(state.bone);
-                out.packInt(vectors.index(new Vector3(state.posX, state.posY, state.posZ)));
-                out.packInt(vectors.index(new Vector3(state.rotX, state.rotY, state.rotZ)));
+                out.packInt(indices[next++]);
+                out.packInt(indices[next++]);
             }
         }
     }
@@ -93,19 +196,38 @@ public class SMDBinaryWriter {
     //     | link bone ID (int) | link weight (float) |
     //   | parent bone (int) | pos index (int) | normal index (int) | UV index (int) | link count (int) |
     //     | link bone ID (int) | link weight (float) |
+    //
+    // version 2 and 3:
+    // | block type = 2 (byte) | material count (int) |
+    //   | material name |
+    // | vectors (binary, little endian) |
+    //   | vectorX (float) | vectorY (float) | vectorZ (float) |
+    // | uvs (binary, little endian) |
+    //   | U (float) | V (float) |
+    // | triangle count (int) |
+    // | triangles (binary, little endian) |
+    //   | material index (int) |
+    //   | parent bone (int) | pos index (int) | normal index (int) | UV index (int) | link count (int) |
+    //     | link bone ID (int) | link weight (float) |
+    //   ... for each of the three vertices
     private void writeTrianglesBlock(@NotNull TrianglesBlock block, @NotNull MessagePacker out) throws IOException {
         out.packByte((byte) 2);
 
         LookupTable<String> materials = new LookupTable<>();
-        LookupTable<Vector3> vectors = new LookupTable<>();
-        LookupTable<TexCoord> uvs = new LookupTable<>();
+        FloatTupleTable vectors = new FloatTupleTable(3);
+        FloatTupleTable uvs = new FloatTupleTable(2);
 
+        // The pos, normal and UV index of every vertex, in order
+        int[] indices = new int[block.triangles.size() * 9];
+        int next = 0;
+        int links = 0;
         for(TrianglesBlock.Triangle triangle : block.triangles) {
             materials.add(triangle.material);
             for(TrianglesBlock.Vertex vertex : triangle.vertices) {
-                vectors.add(new Vector3(vertex.posX, vertex.posY, vertex.posZ));
-                vectors.add(new Vector3(vertex.normX, vertex.normY, vertex.normZ));
-                uvs.add(new TexCoord(vertex.u, vertex.v));
+                links += vertex.links.size();
+                indices[next++] = vectors.add(vertex.posX, vertex.posY, vertex.posZ);
+                indices[next++] = vectors.add(vertex.normX, vertex.normY, vertex.normZ);
+                indices[next++] = uvs.add(vertex.u, vertex.v);
             }
         }
 
@@ -114,22 +236,41 @@ public class SMDBinaryWriter {
             out.packString(material);
         }
 
-        writeVectors(vectors, out);
-
-        out.packInt(uvs.size());
-        for(TexCoord uv : uvs.values()) {
-            out.packFloat(uv.u);
-            out.packFloat(uv.v);
+        next = 0;
+        if(this.packed) {
+            vectors.writePacked(out);
+            uvs.writePacked(out);
+            out.packInt(block.triangles.size());
+
+            PackedInts triangles = new PackedInts(block.triangles.size() * 16 + links * 2);
+            for(TrianglesBlock.Triangle triangle : block.triangles) {
+                triangles.add(materials.index(triangle.material));
+                for(TrianglesBlock.Vertex vertex : triangle.vertices) {
+                    triangles.add(vertex.parentBone);
+                    triangles.add(indices[next++]);
+                    triangles.add(indices[next++]);
+                    triangles.add(indices[next++]);
+                    triangles.add(vertex.links.size());
+                    for (TrianglesBlock.Link link : vertex.links) {
+                        triangles.add(link.bone);
+                        triangles.addFloat(link.weight);
+                    }
+                }
+            }
+            triangles.write(out);
+            return;
         }
 
+        vectors.write(out);
+        uvs.write(out);
         out.packInt(block.triangles.size());
         for(TrianglesBlock.Triangle triangle : block.triangles) {
             out.packInt(materials.index(triangle.material));
             for(TrianglesBlock.Vertex vertex : triangle.vertices) {
                 out.packInt(vertex.parentBone);
-                out.packInt(vectors.index(new Vector3(vertex.posX, vertex.posY, vertex.posZ)));
-                out.packInt(vectors.index(new Vector3(vertex.normX, vertex.normY, vertex.normZ)));
-                out.packInt(uvs.index(new TexCoord(vertex.u, vertex.v)));
+                out.packInt(indices[next++]);
+                out.packInt(indices[next++]);
+                out.packInt(indices[next++]);
                 out.packInt(vertex.links.size());
                 for (TrianglesBlock.Link link : vertex.links) {
                     out.packInt(link.bone);
@@ -144,84 +285,62 @@ public class SMDBinaryWriter {
     // | frame count (int) |
     //   | frame time (int) | vertex count (int) |
     //     | vertex ID (int) | pos index (int) | normal index (int) |
+    //
+    // version 2 and 3:
+    // | block type = 3 (byte) |
+    // | vectors (binary, little endian) |
+    //   | vectorX (float) | vectorY (float) | vectorZ (float) |
+    // | frame count (int) |
+    //   | frame time (int) |
+    //   | vertices (binary, little endian) |
+    //     | vertex ID (int) | pos index (int) | normal index (int) |
     private void writeVertexAnimationBlock(@NotNull VertexAnimationBlock block, @NotNull MessagePacker out) throws IOException {
-        out.packByte((byte) 2);
+        out.packByte((byte) 3);
+
+        FloatTupleTable vectors = new FloatTupleTable(3);
+        int count = 0;
+        for(VertexAnimationBlock.Keyframe keyframe : block.keyframes) {
+            count += keyframe.states.size();
+        }
 
-        LookupTable<Vector3> vectors = new LookupTable<>();
+        // The pos and normal index of every state, in order
+        int[] indices = new int[count * 2];
+        int next = 0;
         for(VertexAnimationBlock.Keyframe keyframe : block.keyframes) {
             for (VertexAnimationBlock.VertexState state : keyframe.states) {
-                vectors.add(new Vector3(state.posX, state.posY, state.posZ));
-                vectors.add(new Vector3(state.normX, state.normY, state.normZ));
+                indices[next++] = vectors.add(state.posX, state.posY, state.posZ);
+                indices[next++] = vectors.add(state.normX, state.normY, state.normZ);
             }
         }
 
-        writeVectors(vectors, out);
+        next = 0;
+        if(this.packed) {
+            vectors.writePacked(out);
+            out.packInt(block.keyframes.size());
+            for(VertexAnimationBlock.Keyframe keyframe : block.keyframes) {
+                out.packInt(keyframe.time);
+
+                PackedInts states = new PackedInts(keyframe.states.size() * 3);
+                for (VertexAnimationBlock.VertexState state : keyframe.states) {
+                    states.add(state.vertex);
+                    states.add(indices[next++]);
+                    states.add(indices[next++]);
+                }
+                states.write(out);
+            }
+            return;
+        }
 
+        vectors.write(out);
+        out.packInt(block.keyframes.size());
         for(VertexAnimationBlock.Keyframe keyframe : block.keyframes) {
             out.packInt(keyframe.time);
             out.packInt(keyframe.states.size());
             for (VertexAnimationBlock.VertexState state : keyframe.states) {
                 out.packInt(state.vertex);
-                out.packInt(vectors.index(new Vector3(state.posX, state.posY, state.posZ)));
-                out.packInt(vectors.index(new Vector3(state.normX, state.normY, state.normZ)));
+                out.packInt(indices[next++]);
+                out.packInt(indices[next++]);
             }
         }
     }
-
-    private void writeVectors(@NotNull LookupTable<Vector3> vectors, @NotNull MessagePacker out) throws IOException {
-        out.packInt(vectors.size());
-        for(Vector3 vector : vectors.values()) {
-            out.packFloat(vector.x);
-            out.packFloat(vector.y);
-            out.packFloat(vector.z);
-        }
-    }
-
-    private static class Vector3 {
-        final float x, y, z;
-
-        public Vector3(float x, float y, float z) {
-            this.x = x;
-            this.y = y;
-            this.z = z;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof Vector3)) return false;
-            Vector3 vector3 = (Vector3) o;
-            return Float.compare(vector3.x, x) == 0 &&
-                    Float.compare(vector3.y, y) == 0 &&
-                    Float.compare(vector3.z, z) == 0;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(x, y, z);
-        }
-    }
-
-    private static class TexCoord {
-        final float u, v;
-
-        public TexCoord(float u, float v) {
-            this.u = u;
-            this.v = v;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof TexCoord)) return false;
-            TexCoord texCoord = (TexCoord) o;
-            return Float.compare(texCoord.u, u) == 0 &&
-                    Float.compare(texCoord.v, v) == 0;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(u, v);
-        }
-    }
 }
@@ -1,153 +1,92 @@
 package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats;
 
 import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.*;
-import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.Tokenizer;
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedReader;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 
 public class SMDTextReader {
 
     public SMDFile read(@NotNull String data) {
-        SMDFile file = new SMDFile();
-        Tokenizer tokenizer = new Tokenizer(data);
-        tokenizer.next().expect("version");
-        tokenizer.next().expect("1");
-        tokenizer.next().expectLine();
-
-        while(!tokenizer.eof()) {
-            String block = tokenizer.next().value;
-            tokenizer.next().expectLine();
-            switch(block) {
-                case "nodes":
-                    file.blocks.add(readNodesBlock(tokenizer));
-                    break;
-                case "skeleton":
-                    file.blocks.add(readSkeletonBlock(tokenizer));
-                    break;
-                case "triangles":
-                    file.blocks.add(readTrianglesBlock(tokenizer));
-                    break;
-                case "vertexanimation":
-                    file.blocks.add(readVertexAnimationBlock(tokenizer));
-                    break;
-            }
-        }
-
-        return file;
+        return read(data.getBytes(StandardCharsets.UTF_8));
     }
 
-    private NodesBlock readNodesBlock(@NotNull Tokenizer file) {
-        NodesBlock block = new NodesBlock();
-
-        while(!file.current().test("end")) {
-            block.bones.add(new NodesBlock.Bone(file.next().toInt(), file.next().toQuotedString(), file.next().toInt()));
-            file.next().expectLine();
-        }
-        file.next().expect("end");
-        file.next().expectLine();
-
-        return block;
+    public SMDFile read(@NotNull byte[] data) {
+        return read(new SMDTextStreamReader(data));
     }
 
-    private SkeletonBlock readSkeletonBlock(@NotNull Tokenizer file) {
-        SkeletonBlock block = new SkeletonBlock();
-
-        if(file.current().test("end")) {
-            file.advance().next().expectLine();
-        }
-        file.current().expect("time");
-
-        SkeletonBlock.Keyframe keyframe = new SkeletonBlock.Keyframe(-1); // this temporary keyframe is immediately overwritten
-        while(!file.current().test("end")) {
-            if(file.current().test("time")) {
-                keyframe = new SkeletonBlock.Keyframe(file.advance().next().toInt());
-                block.keyframes.add(keyframe);
-            } else {
-                keyframe.states.add(
-                        new SkeletonBlock.BoneState(file.next().toInt(),
-                                file.next().toFloat(), file.next().toFloat(), file.next().toFloat(),
-                                file.next().toFloat(), file.next().toFloat(), file.next().toFloat()
-                        )
-                );
-            }
-            file.next().expectLine();
-        }
-        file.next().expect("end");
-        file.next().expectLine();
-
-        return block;
+    public SMDFile read(@NotNull ByteBuffer data) {
+        return read(new SMDTextStreamReader(data));
     }
 
-    private TrianglesBlock readTrianglesBlock(@NotNull Tokenizer file) {
-        TrianglesBlock block = new TrianglesBlock();
-
-        while(!file.current().test("end")) {
-            String material = file.next().value;
-            while(!file.current().testLine()) {
-                material += file.current().whitespaceBefore + file.next().value;
-            }
-            file.next().expectLine();
-            block.triangles.add(new TrianglesBlock.Triangle(
-                    material,
-                    readVertex(file),
-                    readVertex(file),
-                    readVertex(file)
-            ));
-        }
-        file.next().expect("end");
-        file.next().expectLine();
-
-        return block;
+    /**
+     * Reads the stream incrementally, so only the model itself is held in memory rather than the text of
+     * the file. The stream is not closed.
+     */
+    public SMDFile read(@NotNull InputStream input) {
+        return read(new SMDTextStreamReader(input));
     }
 
-    private TrianglesBlock.Vertex readVertex(Tokenizer file) {
-        TrianglesBlock.Vertex vertex = new TrianglesBlock.Vertex(
-                file.next().toInt(), // parent bone
-                file.next().toFloat(), file.next().toFloat(), file.next().toFloat(), // pos
-                file.next().toFloat(), file.next().toFloat(), file.next().toFloat(), // normal
-                file.next().toFloat(), file.next().toFloat() // uv
-        );
-
-        if(!file.current().test("\n")) {
-            int linkCount = file.next().toInt();
-            for (int i = 0; i < linkCount; i++) {
-                vertex.links.add(new TrianglesBlock.Link(file.next().toInt(), file.next().toFloat()));
-            }
-        }
-
-        file.next().expectLine();
-        return vertex;
+    /**
+     * Reads the channel incrementally, so only the model itself is held in memory rather than the text of
+     * the file. The channel is not closed.
+     */
+    public SMDFile read(@NotNull ReadableByteChannel channel) {
+        return read(new SMDTextStreamReader(channel));
     }
 
-    private VertexAnimationBlock readVertexAnimationBlock(@NotNull Tokenizer file) {
-        VertexAnimationBlock block = new VertexAnimationBlock();
-
-        if(file.current().test("end")) {
-            file.advance().next().expectLine();
-        }
-        file.current().expect("time");
+    private SMDFile read(@NotNull SMDTextStreamReader reader) {
+        SMDFile file = new SMDFile();
 
-        VertexAnimationBlock.Keyframe keyframe = new VertexAnimationBlock.Keyframe(-1); // this temporary keyframe is immediately overwritten
-        while(!file.current().test("end")) {
-            if(file.current().test("time")) {
-                keyframe = new VertexAnimationBlock.Keyframe(file.advance().next().toInt());
-                block.keyframes.add(keyframe);
-            } else {
-                keyframe.states.add(
-                        new VertexAnimationBlock.VertexState(file.next().toInt(),
-                                file.next().toFloat(), file.next().toFloat(), file.next().toFloat(),
-                                file.next().toFloat(), file.next().toFloat(), file.next().toFloat()
-                        )
-                );
+        NodesBlock nodes = null;
+        SkeletonBlock skeleton = null;
+        SkeletonBlock.Keyframe keyframe = null;
+        TrianglesBlock triangles = null;
+        VertexAnimationBlock animation = null;
+        VertexAnimationBlock.Keyframe frame = null;
+
+        SMDTextStreamReader.Event event;
+        while((event = reader.next()) != SMDTextStreamReader.Event.END) {
+            switch(event) {
+                case NODES:
+                    file.blocks.add(nodes = new NodesBlock());
+                    break;
+                case BONE:
+                    nodes.bones.add(reader.getBone());
+                    break;
+                case SKELETON:
+                    file.blocks.add(skeleton = new SkeletonBlock());
+                    animation = null;
+                    break;
+                case VERTEX_ANIMATION:
+                    file.blocks.add(animation = new VertexAnimationBlock());
+                    skeleton = null;
+                    break;
+                case KEYFRAME:
+                    if(skeleton != null) {
+                        skeleton.keyframes.add(keyframe = new SkeletonBlock.Keyframe(reader.getTime()));
+                    } else {
+                        animation.keyframes.add(frame = new VertexAnimationBlock.Keyframe(reader.getTime()));
+                    }
+                    break;
+                case BONE_STATE:
+                    keyframe.states.add(reader.getBoneState());
+                    break;
+                case VERTEX_STATE:
+                    frame.states.add(reader.getVertexState());
+                    break;
+                case TRIANGLES:
+                    file.blocks.add(triangles = new TrianglesBlock());
+                    break;
+                case TRIANGLE:
+                    triangles.triangles.add(reader.getTriangle());
+                    break;
             }
-            file.next().expectLine();
         }
-        file.next().expect("end");
-        file.next().expectLine();
 
-        return block;
+        return file;
     }
 }
-
-
@@ -0,0 +1,274 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.*;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.Lexer;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads a text SMD file one element at a time, rather than into a {@link SMDFile}. Each call to
+ * {@link #next()} parses a single line or element and reports what it found, which is then available
+ * from the matching getter until the next call. Nothing is retained between calls, so reading a stream
+ * or channel takes the same memory regardless of the size of the file.
+ *
+ * <pre>{@code
+ * SMDTextStreamReader reader = new SMDTextStreamReader(input);
+ * for(Event event = reader.next(); event != Event.END; event = reader.next()) {
+ *     if(event == Event.TRIANGLE) {
+ *         handle(reader.getTriangle());
+ *     }
+ * }
+ * }</pre>
+ */
+@SuppressWarnings("WeakerAccess")
+public class SMDTextStreamReader {
+
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    public enum Event {
+        /** The start of a {@link NodesBlock}, followed by its bones */
+        NODES,
+        /** A bone, see {@link #getBone()} */
+        BONE,
+        /** The start of a {@link SkeletonBlock}, followed by its keyframes */
+        SKELETON,
+        /** The start of a {@link TrianglesBlock}, followed by its triangles */
+        TRIANGLES,
+        /** A triangle, see {@link #getTriangle()} */
+        TRIANGLE,
+        /** The start of a {@link VertexAnimationBlock}, followed by its keyframes */
+        VERTEX_ANIMATION,
+        /** The start of a keyframe of the current block, followed by its states, see {@link #getTime()} */
+        KEYFRAME,
+        /** The state of a bone within the current skeleton keyframe, see {@link #getBoneState()} */
+        BONE_STATE,
+        /** The state of a vertex within the current vertex animation keyframe, see {@link #getVertexState()} */
+        VERTEX_STATE,
+        /** The end of the current block */
+        END_BLOCK,
+        /** The end of the file, returned by every call from then on */
+        END
+    }
+
+    private final Lexer lexer;
+
+    private Event block;
+    private boolean started;
+
+    private NodesBlock.Bone bone;
+    private int time;
+    private SkeletonBlock.BoneState boneState;
+    private TrianglesBlock.Triangle triangle;
+    private VertexAnimationBlock.VertexState vertexState;
+
+    /**
+     * Reads the stream through a buffer of {@link #BUFFER_SIZE} bytes. The stream is not closed.
+     */
+    public SMDTextStreamReader(@NotNull InputStream input) {
+        this(Channels.newChannel(input));
+    }
+
+    /**
+     * Reads the channel through a buffer of {@link #BUFFER_SIZE} bytes. The channel is not closed.
+     */
+    public SMDTextStreamReader(@NotNull ReadableByteChannel channel) {
+        this(new Lexer(channel, BUFFER_SIZE));
+    }
+
+    public SMDTextStreamReader(@NotNull byte[] data) {
+        this(new Lexer(data));
+    }
+
+    public SMDTextStreamReader(@NotNull ByteBuffer data) {
+        this(new Lexer(data));
+    }
+
+    private SMDTextStreamReader(@NotNull Lexer lexer) {
+        this.lexer = lexer;
+        lexer.expect("version");
+        lexer.expect("1");
+        lexer.expectLine();
+    }
+
+    /**
+     * Reads the next element of the file.
+     *
+     * @return What was read
+     * @throws me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.ParseException
+     *         If the file is malformed
+     * @throws java.io.UncheckedIOException If the underlying stream could not be read
+     */
+    @NotNull
+    public Event next() {
+        while(this.block == null) {
+            if(this.lexer.eof()) {
+                return Event.END;
+            }
+
+            String block = this.lexer.nextWord();
+            this.lexer.expectLine();
+            switch(block) {
+                case "nodes":
+                    this.block = Event.NODES;
+                    break;
+                case "skeleton":
+                    this.block = Event.SKELETON;
+                    break;
+                case "triangles":
+                    this.block = Event.TRIANGLES;
+                    break;
+                case "vertexanimation":
+                    this.block = Event.VERTEX_ANIMATION;
+                    break;
+            }
+
+            if(this.block != null) {
+                this.started = false;
+                return this.block;
+            }
+        }
+
+        switch(this.block) {
+            case NODES:
+                return this.readNodes();
+            case SKELETON:
+            case VERTEX_ANIMATION:
+                return this.readAnimation();
+            default:
+                return this.readTriangles();
+        }
+    }
+
+    /**
+     * @return The bone read by the last {@link Event#BONE}
+     */
+    public NodesBlock.Bone getBone() {
+        return this.bone;
+    }
+
+    /**
+     * @return The time of the keyframe started by the last {@link Event#KEYFRAME}
+     */
+    public int getTime() {
+        return this.time;
+    }
+
+    /**
+     * @return The state read by the last {@link Event#BONE_STATE}
+     */
+    public SkeletonBlock.BoneState getBoneState() {
+        return this.boneState;
+    }
+
+    /**
+     * @return The triangle read by the last {@link Event#TRIANGLE}
+     */
+    public TrianglesBlock.Triangle getTriangle() {
+        return this.triangle;
+    }
+
+    /**
+     * @return The state read by the last {@link Event#VERTEX_STATE}
+     */
+    public VertexAnimationBlock.VertexState getVertexState() {
+        return this.vertexState;
+    }
+
+    private Event end() {
+        this.lexer.expect("end");
+        this.lexer.expectLine();
+        this.block = null;
+        return Event.END_BLOCK;
+    }
+
+    private Event readNodes() {
+        Lexer file = this.lexer;
+        if(file.test("end")) {
+            return this.end();
+        }
+
+        this.bone = new NodesBlock.Bone(file.nextInt(), file.nextQuotedString(), file.nextInt());
+        file.expectLine();
+        return Event.BONE;
+    }
+
+    private Event readAnimation() {
+        Lexer file = this.lexer;
+        if(!this.started) {
+            this.started = true;
+            if(file.test("end")) {
+                file.skip();
+                file.expectLine();
+            }
+            if(!file.test("time")) {
+                throw file.unexpected("`time`");
+            }
+        }
+
+        if(file.test("end")) {
+            return this.end();
+        }
+
+        Event event;
+        if(file.test("time")) {
+            file.skip();
+            this.time = file.nextInt();
+            event = Event.KEYFRAME;
+        } else if(this.block == Event.SKELETON) {
+            this.boneState = new SkeletonBlock.BoneState(file.nextInt(),
+                    file.nextFloat(), file.nextFloat(), file.nextFloat(),
+                    file.nextFloat(), file.nextFloat(), file.nextFloat()
+            );
+            event = Event.BONE_STATE;
+        } else {
+            this.vertexState = new VertexAnimationBlock.VertexState(file.nextInt(),
+                    file.nextFloat(), file.nextFloat(), file.nextFloat(),
+                    file.nextFloat(), file.nextFloat(), file.nextFloat()
+            );
+            event = Event.VERTEX_STATE;
+        }
+
+        file.expectLine();
+        return event;
+    }
+
+    private Event readTriangles() {
+        Lexer file = this.lexer;
+        if(file.test("end")) {
+            return this.end();
+        }
+
+        String material = file.nextRestOfLine();
+        file.expectLine();
+        this.triangle = new TrianglesBlock.Triangle(
+                material,
+                readVertex(file),
+                readVertex(file),
+                readVertex(file)
+        );
+        return Event.TRIANGLE;
+    }
+
+    private static TrianglesBlock.Vertex readVertex(Lexer file) {
+        TrianglesBlock.Vertex vertex = new TrianglesBlock.Vertex(
+                file.nextInt(), // parent bone
+                file.nextFloat(), file.nextFloat(), file.nextFloat(), // pos
+                file.nextFloat(), file.nextFloat(), file.nextFloat(), // normal
+                file.nextFloat(), file.nextFloat() // uv
+        );
+
+        if(!file.atLine()) {
+            int linkCount = file.nextInt();
+            for (int i = 0; i < linkCount; i++) {
+                vertex.links.add(new TrianglesBlock.Link(file.nextInt(), file.nextFloat()));
+            }
+        }
+
+        file.expectLine();
+        return vertex;
+    }
+}
@@ -1,28 +1,59 @@
 package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats;
 
 import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.*;
-import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.TokenPrinter;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.StreamPrinter;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
 public class SMDTextWriter {
     public @NotNull String write(@NotNull SMDFile file) {
-        TokenPrinter tokenPrinter = new TokenPrinter();
-        tokenPrinter.print("version").print("1").newline();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            write(file, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the file as UTF-8 text through a fixed size buffer, so no more than the buffer is held in
+     * memory on top of the file itself. The stream is flushed, but not closed.
+     */
+    public void write(@NotNull SMDFile file, @NotNull OutputStream output) throws IOException {
+        write(file, new StreamPrinter(output));
+    }
+
+    /**
+     * Writes the file as UTF-8 text through a fixed size buffer, so no more than the buffer is held in
+     * memory on top of the file itself. The channel is not closed.
+     */
+    public void write(@NotNull SMDFile file, @NotNull WritableByteChannel output) throws IOException {
+        write(file, new StreamPrinter(output));
+    }
+
+    private void write(@NotNull SMDFile file, @NotNull StreamPrinter out) throws IOException {
+        out.print("version").print("1").newline();
         for(SMDFileBlock block : file.blocks) {
             if(block instanceof NodesBlock)
-                writeNodesBlock((NodesBlock) block, tokenPrinter);
+                writeNodesBlock((NodesBlock) block, out);
             if(block instanceof SkeletonBlock)
-                writeSkeletonBlock((SkeletonBlock) block, tokenPrinter);
+                writeSkeletonBlock((SkeletonBlock) block, out);
             if(block instanceof TrianglesBlock)
-                writeTrianglesBlock((TrianglesBlock) block, tokenPrinter);
+                writeTrianglesBlock((TrianglesBlock) block, out);
             if(block instanceof VertexAnimationBlock)
-                writeVertexAnimationBlock((VertexAnimationBlock) block, tokenPrinter);
+                writeVertexAnimationBlock((VertexAnimationBlock) block, out);
         }
-
-        return tokenPrinter.toString();
+        out.flush();
     }
 
-    private void writeNodesBlock(NodesBlock block, TokenPrinter out) {
+    private void writeNodesBlock(NodesBlock block, StreamPrinter out) throws IOException {
         out.print("nodes").newline();
         for(NodesBlock.Bone bone : block.bones) {
             out.print(bone.id).printString(bone.name).print(bone.parent).newline();
@@ -30,7 +61,7 @@ public class SMDTextWriter {
         out.print("end").newline();
     }
 
-    private void writeSkeletonBlock(SkeletonBlock block, TokenPrinter out) {
+    private void writeSkeletonBlock(SkeletonBlock block, StreamPrinter out) throws IOException {
         out.print("skeleton").newline();
         for(SkeletonBlock.Keyframe keyframe : block.keyframes) {
             out.print("time").print(keyframe.time).newline();
@@ -44,7 +75,7 @@ public class SMDTextWriter {
         out.print("end").newline();
     }
 
-    private void writeTrianglesBlock(TrianglesBlock block, TokenPrinter out) {
+    private void writeTrianglesBlock(TrianglesBlock block, StreamPrinter out) throws IOException {
         out.print("triangles").newline();
         for(TrianglesBlock.Triangle triangle : block.triangles) {
             out.printDirect(triangle.material).newline();
@@ -65,7 +96,7 @@ public class SMDTextWriter {
         out.print("end").newline();
     }
 
-    private void writeVertexAnimationBlock(VertexAnimationBlock block, TokenPrinter out) {
+    private void writeVertexAnimationBlock(VertexAnimationBlock block, StreamPrinter out) throws IOException {
         out.print("vertexanimation").newline();
         for(VertexAnimationBlock.Keyframe keyframe : block.keyframes) {
             out.print("time").print(keyframe.time).newline();
@@ -0,0 +1,151 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * Formats floats with a fixed number of decimals, giving exactly the same text as
+ * {@code String.format("%.6f", value)} does for a precision of 6, without allocating.
+ *
+ * <p>A float is an integer significand times a power of two, so scaling it by a power of ten is exact
+ * in a long, and a single shift and comparison against the halfway point rounds it. The JDK instead
+ * rounds half up from the shortest decimal which identifies the value as a double, but such a decimal
+ * is far closer to a float than any halfway point the float is not exactly on, so both always agree.
+ * Values too large for a long, and NaN or infinities, are left to the JDK.</p>
+ */
+public final class FloatFormatter {
+
+    /** The most characters a single value is written as, for any supported precision */
+    public static final int MAX_LENGTH = 64;
+    public static final int MAX_PRECISION = 9;
+
+    private static final long[] POWERS = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L };
+
+    /** Floats at or beyond this magnitude are left to the JDK */
+    private static final float LIMIT = 0x1p31f;
+
+    private FloatFormatter() {}
+
+    /**
+     * @param value The value to format
+     * @param precision The number of decimals, at most {@link #MAX_PRECISION}
+     * @return The value, as {@code String.format("%.<precision>f", value)} would write it
+     */
+    @NotNull
+    public static String format(float value, int precision) {
+        return append(new StringBuilder(16), value, precision).toString();
+    }
+
+    /**
+     * Appends the value, as {@code String.format("%.<precision>f", value)} would write it.
+     *
+     * @return The builder
+     */
+    @NotNull
+    public static StringBuilder append(@NotNull StringBuilder out, float value, int precision) {
+        long scaled = scale(value, precision);
+        if(scaled < 0) {
+            return out.append(fallback(value, precision));
+        }
+
+        if(Float.floatToRawIntBits(value) < 0) {
+            out.append('-');
+        }
+
+        out.append(scaled / POWERS[precision]);
+        if(precision > 0) {
+            out.append('.');
+            long fraction = scaled % POWERS[precision];
+            for(int i = precision - 1; i >= 0; i--) {
+                out.append((char) ('0' + fraction / POWERS[i] % 10));
+            }
+        }
+
+        return out;
+    }
+
+    /**
+     * Writes the value as ASCII, as {@code String.format("%.<precision>f", value)} would write it.
+     *
+     * @param buffer The buffer to write into, which must have at least {@link #MAX_LENGTH} bytes free from the offset
+     * @param offset The index the value is written from
+     * @return The index after the last byte written
+     */
+    public static int write(float value, int precision, @NotNull byte[] buffer, int offset) {
+        long scaled = scale(value, precision);
+        if(scaled < 0) {
+            String text = fallback(value, precision);
+            for(int i = 0; i < text.length(); i++) {
+                buffer[offset++] = (byte) text.charAt(i);
+            }
+            return offset;
+        }
+
+        if(Float.floatToRawIntBits(value) < 0) {
+            buffer[offset++] = '-';
+        }
+
+        long whole = scaled / POWERS[precision];
+        int digits = 1;
+        while(digits < POWERS.length && whole >= POWERS[digits]) {
+            digits++;
+        }
+        for(int i = digits - 1; i >= 0; i--) {
+            buffer[offset++] = (byte) ('0' + whole / POWERS[i] % 10);
+        }
+
+        if(precision > 0) {
+            buffer[offset++] = '.';
+            long fraction = scaled % POWERS[precision];
+            for(int i = precision - 1; i >= 0; i--) {
+                buffer[offset++] = (byte) ('0' + fraction / POWERS[i] % 10);
+            }
+        }
+
+        return offset;
+    }
+
+    /**
+     * @return The magnitude of the value times ten to the precision, rounded half up, or -1 if the value
+     *         must be left to the JDK
+     */
+    private static long scale(float value, int precision) {
+        if(precision < 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between 0 and " + MAX_PRECISION + ", was " + precision);
+        }
+
+        if(!(Math.abs(value) < LIMIT)) {
+            return -1;
+        }
+
+        int bits = Float.floatToRawIntBits(value);
+        int exponent = (bits >>> 23) & 0xFF;
+        long significand = bits & 0x7FFFFF;
+        if(exponent == 0) {
+            exponent = 1;
+        } else {
+            significand |= 0x800000;
+        }
+
+        // The value is significand * 2^(exponent - 150), so scaling it first keeps it exact
+        long scaled = significand * POWERS[precision];
+        int shift = 150 - exponent;
+        if(shift <= 0) {
+            return scaled << -shift;
+        } else if(shift >= 63) {
+            // Less than half of the last decimal, as the scaled significand is below 2^54
+            return 0;
+        }
+
+        long rounded = scaled >>> shift;
+        if((scaled & (1L << (shift - 1))) != 0) {
+            rounded++;
+        }
+        return rounded;
+    }
+
+    private static String fallback(float value, int precision) {
+        return String.format(Locale.ROOT, "%." + precision + "f", value);
+    }
+}
@@ -0,0 +1,147 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses the decimal numbers found in SMD files into floats, giving exactly the same result as
+ * {@link Float#parseFloat(String)} but without allocating, and many times faster.
+ *
+ * <p>Numbers of the form {@code [+-]digits[.digits][(e|E)[+-]digits]} are read into a decimal significand
+ * and power of ten. When both are exactly representable, a single floating point division or
+ * multiplication gives the correctly rounded result, first in float and otherwise in double precision.
+ * The double is then rounded to a float, which is only wrong if it lands exactly halfway between two
+ * floats, so that case is handed over to the JDK along with any other input, such as {@code NaN}, hex
+ * floats or numbers with more than 18 significant digits.</p>
+ */
+public final class FloatParser {
+
+    private static final float[] FLOAT_POWERS = { 1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f };
+    private static final double[] DOUBLE_POWERS = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /** The bits of a double's significand which are rounded away when it is converted to a float */
+    private static final long DROPPED = (1L << 29) - 1;
+    private static final long HALFWAY = 1L << 28;
+
+    private FloatParser() {}
+
+    /**
+     * @param text The number to parse
+     * @return The number, rounded exactly as {@link Float#parseFloat(String)} would
+     * @throws NumberFormatException If the text is not a number
+     */
+    public static float parse(@NotNull CharSequence text) {
+        float value = fast(null, text, 0, text.length());
+        return Float.isNaN(value) ? Float.parseFloat(text.toString()) : value;
+    }
+
+    /**
+     * @param data Holds the number as ASCII text
+     * @param from The index of the first character of the number
+     * @param to The index after the last character of the number
+     * @return The number, rounded exactly as {@link Float#parseFloat(String)} would
+     * @throws NumberFormatException If the text is not a number
+     */
+    public static float parse(@NotNull byte[] data, int from, int to) {
+        float value = fast(data, null, from, to);
+        return Float.isNaN(value) ? Float.parseFloat(new String(data, from, to - from, StandardCharsets.ISO_8859_1)) : value;
+    }
+
+    /**
+     * Reads the number out of either the bytes or the text, whichever is given.
+     *
+     * @return The number, or NaN if it must be left to the JDK
+     */
+    private static float fast(byte[] data, CharSequence text, int from, int to) {
+        int i = from;
+        if(i == to) {
+            return Float.NaN;
+        }
+
+        int c = data != null ? data[i] : text.charAt(i);
+        boolean negative = c == '-';
+        if(negative || c == '+') {
+            i++;
+        }
+
+        long significand = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean any = false;
+        boolean point = false;
+        for(; i < to; i++) {
+            c = data != null ? data[i] : text.charAt(i);
+            if(c >= '0' && c <= '9') {
+                any = true;
+                if(significand != 0 || c != '0') {
+                    if(++digits > 18) {
+                        return Float.NaN;
+                    }
+                    significand = significand * 10 + (c - '0');
+                }
+                if(point) {
+                    exponent--;
+                }
+            } else if(c == '.' && !point) {
+                point = true;
+            } else {
+                break;
+            }
+        }
+
+        if(!any) {
+            return Float.NaN;
+        }
+
+        if(i < to) {
+            if(c != 'e' && c != 'E' || ++i == to) {
+                return Float.NaN;
+            }
+
+            c = data != null ? data[i] : text.charAt(i);
+            boolean negativeExponent = c == '-';
+            if(negativeExponent || c == '+') {
+                if(++i == to) {
+                    return Float.NaN;
+                }
+            }
+
+            int explicit = 0;
+            for(; i < to; i++) {
+                c = data != null ? data[i] : text.charAt(i);
+                if(c < '0' || c > '9') {
+                    return Float.NaN;
+                }
+                if(explicit < 1000) {
+                    explicit = explicit * 10 + (c - '0');
+                }
+            }
+
+            exponent += negativeExponent ? -explicit : explicit;
+        }
+
+        if(significand == 0) {
+            return negative ? -0f : 0f;
+        }
+
+        float value;
+        if(significand <= 1 << 24 && exponent >= -10 && exponent <= 10) {
+            value = exponent < 0 ? significand / FLOAT_POWERS[-exponent] : significand * FLOAT_POWERS[exponent];
+        } else if(significand <= 1L << 53 && exponent >= -22 && exponent <= 22) {
+            double exact = exponent < 0 ? significand / DOUBLE_POWERS[-exponent] : significand * DOUBLE_POWERS[exponent];
+            long bits = Double.doubleToRawLongBits(exact);
+            if(exact < Float.MIN_NORMAL || (bits & DROPPED) == HALFWAY) {
+                return Float.NaN;
+            }
+            value = (float) exact;
+        } else {
+            return Float.NaN;
+        }
+
+        return negative ? -value : value;
+    }
+}
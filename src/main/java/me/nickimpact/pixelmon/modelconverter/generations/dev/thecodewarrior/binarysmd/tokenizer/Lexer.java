@@ -0,0 +1,503 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Scans the tokens of a text SMD file straight out of its bytes, one token at a time. Tokens are only
+ * ever described by their bounds within the data, and numbers are parsed in place, so nothing is
+ * allocated unless a string is asked for, and floats are parsed by {@link FloatParser}.
+ *
+ * <p>When reading from a channel, only the line being scanned is held in memory, within a buffer which
+ * is refilled as lines are consumed, and only grows to fit a line longer than itself.</p>
+ *
+ * <p>Tokens are split the same way the old regex tokenizer split them: runs of non whitespace, or double
+ * quoted strings, with a line token at the end of every line. Blank lines at the end of the file produce
+ * no tokens.</p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class Lexer {
+
+    private static final int WORD = 0;
+    private static final int LINE = 1;
+    private static final int END = 2;
+
+    private final ReadableByteChannel channel;
+    private byte[] data;
+    private int limit;
+    private boolean exhausted;
+
+    private int position;
+    private int line;
+    private int lineStart;
+
+    private int type = LINE;
+    private int start;
+    private int end;
+    private int tokenLine;
+    private int tokenColumn;
+
+    private String text;
+    private byte[] textBytes;
+
+    public Lexer(@NotNull byte[] data) {
+        this(data, 0, data.length);
+    }
+
+    public Lexer(@NotNull byte[] data, int offset, int length) {
+        this.channel = null;
+        this.data = data;
+        this.position = offset;
+        this.lineStart = offset;
+        this.limit = offset + length;
+        this.scan();
+    }
+
+    /**
+     * Lexes the remaining bytes of the buffer, without copying them if the buffer is backed by an array.
+     */
+    public Lexer(@NotNull ByteBuffer buffer) {
+        this(array(buffer), buffer.hasArray() ? buffer.arrayOffset() + buffer.position() : 0, buffer.remaining());
+    }
+
+    /**
+     * Lexes the channel a line at a time, reading it through a buffer of the given size. The channel is
+     * not closed once its end has been reached.
+     */
+    public Lexer(@NotNull ReadableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.data = new byte[Math.max(16, bufferSize)];
+        this.scan();
+    }
+
+    private static byte[] array(ByteBuffer buffer) {
+        if(buffer.hasArray()) {
+            return buffer.array();
+        }
+
+        byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return data;
+    }
+
+    /**
+     * @return true if all tokens have been consumed
+     */
+    public boolean eof() {
+        return this.type == END;
+    }
+
+    /**
+     * @return true if the current token ends a line
+     */
+    public boolean atLine() {
+        return this.type == LINE;
+    }
+
+    /**
+     * @return true if the current token is exactly the given ASCII word
+     */
+    public boolean test(@NotNull String word) {
+        if(this.type != WORD || this.end - this.start != word.length()) {
+            return false;
+        }
+
+        for(int i = 0; i < word.length(); i++) {
+            if(this.data[this.start + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return true if the current token is the given ASCII word, and is the only token on its line
+     */
+    public boolean testLine(@NotNull String word, boolean ignoreCase) {
+        if(this.type != WORD || this.tokenColumn != 0 || this.end - this.start != word.length()) {
+            return false;
+        }
+
+        for(int i = 0; i < word.length(); i++) {
+            char c = (char) this.data[this.start + i];
+            if(c != word.charAt(i) && !(ignoreCase && Character.toLowerCase(c) == Character.toLowerCase(word.charAt(i)))) {
+                return false;
+            }
+        }
+
+        // The whole line is buffered once its first token has been scanned
+        for(int i = this.end; i < this.limit && this.data[i] != '\n'; i++) {
+            if(!whitespace(this.data[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Consumes the current token, which must be the given word.
+     */
+    public void expect(@NotNull String word) {
+        if(!this.test(word)) {
+            throw this.unexpected("`" + word + "`");
+        }
+
+        this.scan();
+    }
+
+    /**
+     * Consumes the current token, which must end a line.
+     */
+    public void expectLine() {
+        if(this.type != LINE) {
+            throw this.unexpected("end of line");
+        }
+
+        this.scan();
+    }
+
+    /**
+     * Consumes the current token, whatever it is.
+     */
+    public void skip() {
+        this.require();
+        this.scan();
+    }
+
+    /**
+     * @return The current token as a string, which is then consumed
+     */
+    @NotNull
+    public String nextWord() {
+        this.require();
+        String word = this.type == LINE ? "\n" : this.string(this.start, this.end);
+        this.scan();
+        return word;
+    }
+
+    /**
+     * @return The contents of the current token, which must be a double quoted string, which is then consumed
+     */
+    @NotNull
+    public String nextQuotedString() {
+        if(this.type != WORD || this.end - this.start < 2 || this.data[this.start] != '"' || this.data[this.end - 1] != '"') {
+            throw this.error(this.describe() + " is not a double quoted string");
+        }
+
+        String value = this.string(this.start + 1, this.end - 1);
+        this.scan();
+        return value;
+    }
+
+    /**
+     * Consumes every token up to the end of the line, leaving the line token as the current token.
+     *
+     * @return The text from the start of the current token to the end of the last token on the line, which
+     *         is the same instance as last time if the text has not changed
+     */
+    @NotNull
+    public String nextRestOfLine() {
+        if(this.type != WORD) {
+            throw this.unexpected("text");
+        }
+
+        int from = this.start;
+        int to;
+        do {
+            to = this.end;
+            this.scan();
+        } while(this.type == WORD);
+
+        if(this.text == null || !this.equal(from, to, this.textBytes)) {
+            this.text = this.string(from, to);
+            this.textBytes = Arrays.copyOfRange(this.data, from, to);
+        }
+
+        return this.text;
+    }
+
+    /**
+     * @return The current token as an integer, which is then consumed
+     */
+    public int nextInt() {
+        if(this.type != WORD) {
+            throw this.unexpected("an integer");
+        }
+
+        int i = this.start;
+        boolean negative = false;
+        if(this.data[i] == '-' || this.data[i] == '+') {
+            negative = this.data[i] == '-';
+            i++;
+        }
+
+        if(i == this.end) {
+            throw this.error(this.describe() + " is not an integer");
+        }
+
+        // Accumulated negatively, as the magnitude of Integer.MIN_VALUE does not fit in an int
+        int value = 0;
+        for(; i < this.end; i++) {
+            int digit = this.data[i] - '0';
+            if(digit < 0 || digit > 9 || value < -214748364 || value * 10 < Integer.MIN_VALUE + digit) {
+                throw this.error(this.describe() + " is not an integer");
+            }
+            value = value * 10 - digit;
+        }
+
+        if(!negative && value == Integer.MIN_VALUE) {
+            throw this.error(this.describe() + " is not an integer");
+        }
+
+        this.scan();
+        return negative ? value : -value;
+    }
+
+    /**
+     * @return The current token as a float, rounded exactly as {@link Float#parseFloat(String)} would, which
+     *         is then consumed
+     */
+    public float nextFloat() {
+        if(this.type != WORD) {
+            throw this.unexpected("a number");
+        }
+
+        float value;
+        try {
+            value = FloatParser.parse(this.data, this.start, this.end);
+        } catch (NumberFormatException e) {
+            throw new ParseException(this.tokenLine, this.tokenColumn, this.describe() + " is not a number", e);
+        }
+
+        this.scan();
+        return value;
+    }
+
+    /**
+     * @return An exception pointing at the current token
+     */
+    @NotNull
+    public ParseException error(@NotNull String message) {
+        return new ParseException(this.tokenLine, this.tokenColumn, message);
+    }
+
+    /**
+     * @return An exception pointing at the current token, describing what was expected in its place
+     */
+    @NotNull
+    public ParseException unexpected(@NotNull String expected) {
+        return this.error("Expected " + expected + ", found " + this.describe());
+    }
+
+    /**
+     * @return The zero based line of the current token
+     */
+    public int getLine() {
+        return this.tokenLine;
+    }
+
+    /**
+     * @return The zero based column of the current token, in bytes from the start of its line
+     */
+    public int getColumn() {
+        return this.tokenColumn;
+    }
+
+    private void require() {
+        if(this.type == END) {
+            throw this.error("End of file reached");
+        }
+    }
+
+    private String describe() {
+        switch(this.type) {
+            case LINE:
+                return "end of line";
+            case END:
+                return "end of file";
+            default:
+                return "`" + this.string(this.start, this.end) + "`";
+        }
+    }
+
+    private String string(int from, int to) {
+        return new String(this.data, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    private boolean equal(int from, int to, byte[] other) {
+        if(to - from != other.length) {
+            return false;
+        }
+
+        for(int i = 0; i < other.length; i++) {
+            if(this.data[from + i] != other[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Reads more of the channel into the buffer, first discarding everything before the current position,
+     * which is always at the start of a line.
+     *
+     * @return false if there is nothing more to read
+     */
+    private boolean fill() {
+        if(this.channel == null || this.exhausted) {
+            return false;
+        }
+
+        if(this.position > 0) {
+            System.arraycopy(this.data, this.position, this.data, 0, this.limit - this.position);
+            this.limit -= this.position;
+            this.lineStart -= this.position;
+            this.position = 0;
+        }
+
+        if(this.limit == this.data.length) {
+            this.data = Arrays.copyOf(this.data, this.data.length * 2);
+        }
+
+        try {
+            int read;
+            do {
+                read = this.channel.read(ByteBuffer.wrap(this.data, this.limit, this.data.length - this.limit));
+            } while(read == 0);
+
+            if(read < 0) {
+                this.exhausted = true;
+                return false;
+            }
+
+            this.limit += read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Ensures the line starting at the current position is buffered in full, along with its line break.
+     */
+    private void fillLine() {
+        int i = this.position;
+        while(true) {
+            for(; i < this.limit; i++) {
+                if(this.data[i] == '\n') {
+                    return;
+                }
+            }
+
+            int offset = i - this.position;
+            if(!this.fill()) {
+                return;
+            }
+            i = this.position + offset;
+        }
+    }
+
+    /**
+     * @return true if nothing but whitespace and line breaks remain
+     */
+    private boolean blank() {
+        int i = this.position;
+        while(true) {
+            for(; i < this.limit; i++) {
+                if(!whitespace(this.data[i]) && this.data[i] != '\n') {
+                    return false;
+                }
+            }
+
+            int offset = i - this.position;
+            if(!this.fill()) {
+                return true;
+            }
+            i = this.position + offset;
+        }
+    }
+
+    private static boolean whitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+    }
+
+    private void scan() {
+        if(this.type == LINE) {
+            // Only blank lines remain, which produce no tokens
+            if(this.blank()) {
+                this.end(this.limit);
+                return;
+            }
+
+            this.fillLine();
+        }
+
+        byte[] data = this.data;
+        int i = this.position;
+
+        while(i < this.limit && whitespace(data[i])) {
+            i++;
+        }
+
+        if(i == this.limit) {
+            if(this.type == WORD) {
+                // The last line has no line break, but still ends with a line token
+                this.token(LINE, i, i, i - this.lineStart);
+                this.position = i;
+            } else {
+                this.end(i);
+            }
+            return;
+        }
+
+        if(data[i] == '\n') {
+            this.token(LINE, i, i + 1, (i > this.lineStart && data[i - 1] == '\r' ? i - 1 : i) - this.lineStart);
+            this.position = i + 1;
+            this.line++;
+            this.lineStart = i + 1;
+            return;
+        }
+
+        int j = i + 1;
+        if(data[i] == '"') {
+            while(j < this.limit && data[j] != '"' && data[j] != '\n') {
+                j++;
+            }
+            if(j < this.limit && data[j] == '"') {
+                this.token(WORD, i, j + 1, i - this.lineStart);
+                this.position = j + 1;
+                return;
+            }
+            j = i + 1;
+        }
+
+        while(j < this.limit && data[j] != '\n' && !whitespace(data[j])) {
+            j++;
+        }
+
+        this.token(WORD, i, j, i - this.lineStart);
+        this.position = j;
+    }
+
+    private void token(int type, int start, int end, int column) {
+        this.type = type;
+        this.start = start;
+        this.end = end;
+        this.tokenLine = this.line;
+        this.tokenColumn = column;
+    }
+
+    private void end(int position) {
+        this.token(END, position, position, position - this.lineStart);
+        this.position = position;
+    }
+}
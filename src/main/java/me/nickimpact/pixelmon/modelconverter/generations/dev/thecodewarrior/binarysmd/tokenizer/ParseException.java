@@ -1,23 +1,15 @@
 package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer;
 
 public class ParseException extends RuntimeException {
-    public ParseException(Token token) {
-        super(formatMessage("", token));
+    public ParseException(int line, int column, String message) {
+        super(formatMessage(message, line, column));
     }
 
-    public ParseException(Token token, String message) {
-        super(formatMessage(message, token));
+    public ParseException(int line, int column, String message, Throwable cause) {
+        super(formatMessage(message, line, column), cause);
     }
 
-    public ParseException(Token token, String message, Throwable cause) {
-        super(formatMessage(message, token), cause);
-    }
-
-    public ParseException(Token token, Throwable cause) {
-        super(formatMessage("", token), cause);
-    }
-
-    public static String formatMessage(String message, Token token) {
-        return String.format("%s at %d:%d", message, token.line + 1, token.column + 1);
+    public static String formatMessage(String message, int line, int column) {
+        return String.format("%s at %d:%d", message, line + 1, column + 1);
     }
 }
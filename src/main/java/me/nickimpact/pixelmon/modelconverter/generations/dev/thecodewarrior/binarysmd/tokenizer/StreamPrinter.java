@@ -0,0 +1,200 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes text straight into a byte buffer, which is drained to a stream or channel whenever it fills, so
+ * a file of any size is written in constant memory.
+ *
+ * <p>The {@code print} methods lay out tokens separated by single spaces, leaving out lines which hold no
+ * tokens. The {@code append} methods write text as is, for output with a layout of its own. Text is
+ * written as UTF-8, and floats with {@link FloatFormatter}.</p>
+ *
+ * <p>Nothing is written to the stream or channel until the buffer fills or the printer is flushed, and
+ * neither is closed by the printer.</p>
+ */
+@SuppressWarnings("WeakerAccess")
+public final class StreamPrinter implements Flushable {
+
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    private final OutputStream stream;
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private int position;
+    private boolean tokens;
+
+    public StreamPrinter(@NotNull OutputStream stream) {
+        this(stream, null, BUFFER_SIZE);
+    }
+
+    public StreamPrinter(@NotNull WritableByteChannel channel) {
+        this(null, channel, BUFFER_SIZE);
+    }
+
+    private StreamPrinter(OutputStream stream, WritableByteChannel channel, int size) {
+        this.stream = stream;
+        this.channel = channel;
+        this.buffer = new byte[Math.max(size, FloatFormatter.MAX_LENGTH)];
+    }
+
+    @NotNull
+    public StreamPrinter printDirect(@NotNull String token) throws IOException {
+        this.separate();
+        return this.append(token);
+    }
+
+    @NotNull
+    public StreamPrinter print(@NotNull String token) throws IOException {
+        for(int i = 0; i < token.length(); i++) {
+            if(Character.isWhitespace(token.charAt(i))) {
+                throw new IllegalArgumentException("Can't print a token containing whitespace");
+            }
+        }
+
+        return this.printDirect(token);
+    }
+
+    @NotNull
+    public StreamPrinter printString(@NotNull String string) throws IOException {
+        this.separate();
+        return this.append('"').append(string).append('"');
+    }
+
+    @NotNull
+    public StreamPrinter print(int number) throws IOException {
+        this.separate();
+        return this.append(number);
+    }
+
+    @NotNull
+    public StreamPrinter print(float number) throws IOException {
+        this.separate();
+        return this.append(number, 6);
+    }
+
+    /**
+     * Ends the current line, if anything has been printed on it.
+     */
+    @NotNull
+    public StreamPrinter newline() throws IOException {
+        if(this.tokens) {
+            this.tokens = false;
+            this.append('\n');
+        }
+        return this;
+    }
+
+    @NotNull
+    public StreamPrinter append(char c) throws IOException {
+        if(c >= 0x80) {
+            return this.append(String.valueOf(c));
+        }
+
+        this.require(1);
+        this.buffer[this.position++] = (byte) c;
+        return this;
+    }
+
+    @NotNull
+    public StreamPrinter append(@NotNull String text) throws IOException {
+        for(int i = 0; i < text.length(); i++) {
+            if(text.charAt(i) >= 0x80) {
+                return this.append(text.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        for(int i = 0; i < text.length(); ) {
+            this.require(1);
+            int count = Math.min(text.length() - i, this.buffer.length - this.position);
+            for(int end = i + count; i < end; i++) {
+                this.buffer[this.position++] = (byte) text.charAt(i);
+            }
+        }
+        return this;
+    }
+
+    @NotNull
+    public StreamPrinter append(int number) throws IOException {
+        this.require(11);
+        if(number < 0) {
+            this.buffer[this.position++] = '-';
+        }
+
+        // Written from the last digit, negated so that Integer.MIN_VALUE needs no special case
+        long value = -Math.abs((long) number);
+        int digits = 1;
+        for(long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+
+        int end = this.position + digits;
+        for(int i = end - 1; i >= this.position; i--) {
+            this.buffer[i] = (byte) ('0' - value % 10);
+            value /= 10;
+        }
+        this.position = end;
+        return this;
+    }
+
+    @NotNull
+    public StreamPrinter append(float number, int precision) throws IOException {
+        this.require(FloatFormatter.MAX_LENGTH);
+        this.position = FloatFormatter.write(number, precision, this.buffer, this.position);
+        return this;
+    }
+
+    /**
+     * Writes everything buffered so far to the stream or channel, then flushes the stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        this.drain();
+        if(this.stream != null) {
+            this.stream.flush();
+        }
+    }
+
+    private StreamPrinter append(byte[] bytes) throws IOException {
+        for(int i = 0; i < bytes.length; ) {
+            this.require(1);
+            int count = Math.min(bytes.length - i, this.buffer.length - this.position);
+            System.arraycopy(bytes, i, this.buffer, this.position, count);
+            this.position += count;
+            i += count;
+        }
+        return this;
+    }
+
+    private void separate() throws IOException {
+        if(this.tokens) {
+            this.append(' ');
+        }
+        this.tokens = true;
+    }
+
+    private void require(int space) throws IOException {
+        if(this.buffer.length - this.position < space) {
+            this.drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if(this.stream != null) {
+            this.stream.write(this.buffer, 0, this.position);
+        } else {
+            ByteBuffer buffer = ByteBuffer.wrap(this.buffer, 0, this.position);
+            while(buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+        }
+        this.position = 0;
+    }
+}
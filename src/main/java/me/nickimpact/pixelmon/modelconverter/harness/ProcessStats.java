@@ -0,0 +1,95 @@
+package me.nickimpact.pixelmon.modelconverter.harness;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Reads the resource usage of the running JVM. Peak RSS comes from {@code /proc/self/status}, and is
+ * only available on Linux, where it can also be reset between measurements. Everywhere else it is
+ * reported as -1, leaving the peak heap as the closest stand in.
+ */
+final class ProcessStats {
+
+    private static final Path STATUS = Paths.get("/proc/self/status");
+    private static final Path CLEAR_REFS = Paths.get("/proc/self/clear_refs");
+
+    private ProcessStats() {}
+
+    /**
+     * Resets the peak RSS and heap usage, so the next reading only covers what happens from now on.
+     */
+    static void resetPeaks() {
+        try {
+            Files.write(CLEAR_REFS, "5".getBytes(StandardCharsets.US_ASCII));
+        } catch (Exception ignored) {
+            // Not Linux, or not permitted, in which case the peak covers the life of the process
+        }
+
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * @return The peak resident set size of the process in bytes, or -1 if it is not known
+     */
+    static long peakRss() {
+        try {
+            for(String line : Files.readAllLines(STATUS, StandardCharsets.US_ASCII)) {
+                if(line.startsWith("VmHWM:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (Exception ignored) {
+            // Fall through to unknown
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The sum of the peak usage of each heap pool in bytes, which may overstate the true peak
+     */
+    static long peakHeap() {
+        long peak = 0;
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+
+        return peak;
+    }
+
+    /**
+     * @return The total time spent in garbage collection by the process so far, in milliseconds
+     */
+    static long gcMillis() {
+        long total = 0;
+        for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+
+        return total;
+    }
+
+    /**
+     * @return The total number of garbage collections run by the process so far
+     */
+    static long gcCount() {
+        long total = 0;
+        for(GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionCount());
+        }
+
+        return total;
+    }
+}
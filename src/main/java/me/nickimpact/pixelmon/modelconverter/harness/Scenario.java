@@ -0,0 +1,62 @@
+package me.nickimpact.pixelmon.modelconverter.harness;
+
+import me.nickimpact.pixelmon.modelconverter.ModelConverter;
+import me.nickimpact.pixelmon.modelconverter.Translator;
+import me.nickimpact.pixelmon.modelconverter.corpus.CorpusGenerator;
+
+/**
+ * One conversion measured by the {@link ThroughputHarness}: a translator, and the form of the corpus
+ * it is run over. Jars can only be decoded, so encoding is measured over directories alone.
+ */
+public enum Scenario {
+    REFORGED_DECODE_DIR(true, true, CorpusGenerator.Format.BMD, false),
+    REFORGED_DECODE_JAR(true, true, CorpusGenerator.Format.BMD, true),
+    REFORGED_ENCODE_DIR(true, false, CorpusGenerator.Format.SMD, false),
+    GENERATIONS_DECODE_DIR(false, true, CorpusGenerator.Format.SMDX, false),
+    GENERATIONS_DECODE_JAR(false, true, CorpusGenerator.Format.SMDX, true),
+    GENERATIONS_ENCODE_DIR(false, false, CorpusGenerator.Format.SMD, false);
+
+    private final boolean version;
+    private final boolean type;
+    private final CorpusGenerator.Format input;
+    private final boolean jar;
+
+    Scenario(boolean version, boolean type, CorpusGenerator.Format input, boolean jar) {
+        this.version = version;
+        this.type = type;
+        this.input = input;
+        this.jar = jar;
+    }
+
+    /**
+     * @return The name the scenario is recorded under, such as {@code reforged-decode-jar}
+     */
+    public String getId() {
+        return this.name().toLowerCase().replace('_', '-');
+    }
+
+    public Translator getTranslator() {
+        return ModelConverter.parse(this.version, this.type);
+    }
+
+    /**
+     * @return The format of the corpus the scenario reads
+     */
+    public CorpusGenerator.Format getInput() {
+        return this.input;
+    }
+
+    public boolean isJar() {
+        return this.jar;
+    }
+
+    public static Scenario fromId(String id) {
+        for(Scenario scenario : values()) {
+            if(scenario.getId().equalsIgnoreCase(id)) {
+                return scenario;
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown scenario: " + id);
+    }
+}
@@ -0,0 +1,373 @@
+package me.nickimpact.pixelmon.modelconverter.harness;
+
+import me.nickimpact.pixelmon.modelconverter.ModelConverter;
+import me.nickimpact.pixelmon.modelconverter.Translator;
+import me.nickimpact.pixelmon.modelconverter.corpus.CorpusGenerator;
+import me.nickimpact.pixelmon.modelconverter.corpus.ModelGenerator;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionEngine;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionJob;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Measures whole conversions, from walking the input to the last file written, over a generated corpus
+ * laid out like a Pixelmon release. Each {@link Scenario} is run a number of times to warm up, then a
+ * number of times for the record, with the median of the recorded runs reported alongside them.
+ *
+ * <p>The corpus is written once into the working directory and reused by later runs with the same
+ * settings, so only the first run pays for generating it.</p>
+ */
+public class ThroughputHarness {
+
+    private static final String CORPUS_KEY = ".corpus";
+
+    private final ModelGenerator models;
+    private final int species;
+    private final int animations;
+    private final long seed;
+    private final Set<Scenario> scenarios;
+    private final int threads;
+    private final int warmup;
+    private final int iterations;
+    private final String label;
+
+    private ThroughputHarness(Builder builder) {
+        this.models = builder.models;
+        this.species = builder.species;
+        this.animations = builder.animations;
+        this.seed = builder.seed;
+        this.scenarios = builder.scenarios;
+        this.threads = builder.threads;
+        this.warmup = builder.warmup;
+        this.iterations = builder.iterations;
+        this.label = builder.label;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Runs every scenario in turn.
+     *
+     * @param workdir Holds the corpus, along with the output of the scenario being run
+     * @param results Receives each measured run as it finishes, followed by the median of each scenario
+     * @throws IOException If the corpus could not be written, or an output could not be cleared
+     * @throws Exception If a conversion fails
+     */
+    public void run(Path workdir, Consumer<Result> results) throws Exception {
+        Path corpus = this.prepare(workdir.resolve("corpus"));
+
+        for(Scenario scenario : this.scenarios) {
+            String format = scenario.getInput().name().toLowerCase();
+            Path in = corpus.resolve(scenario.isJar() ? format + ".jar" : format);
+            Path out = workdir.resolve("out").resolve(scenario.getId());
+
+            for(int i = 0; i < this.warmup; i++) {
+                this.measure(scenario, in, out, -1);
+            }
+
+            List<Result> measured = new ArrayList<>();
+            for(int i = 0; i < this.iterations; i++) {
+                Result result = this.measure(scenario, in, out, i);
+                measured.add(result);
+                results.accept(result);
+            }
+
+            if(!measured.isEmpty()) {
+                results.accept(Result.median(measured));
+            }
+        }
+
+        delete(workdir.resolve("out"));
+    }
+
+    private Path prepare(Path corpus) throws IOException {
+        String key = "species=" + this.species + ",animations=" + this.animations + ",seed=" + this.seed + "," + this.models;
+        Path marker = corpus.resolve(CORPUS_KEY);
+        if(Files.exists(marker) && new String(Files.readAllBytes(marker), StandardCharsets.UTF_8).equals(key)) {
+            return corpus;
+        }
+
+        delete(corpus);
+        Files.createDirectories(corpus);
+
+        CorpusGenerator generator = new CorpusGenerator(this.models, this.species, this.animations, this.seed);
+        Set<CorpusGenerator.Format> trees = EnumSet.noneOf(CorpusGenerator.Format.class);
+        Set<CorpusGenerator.Format> jars = EnumSet.noneOf(CorpusGenerator.Format.class);
+        // Every form is written regardless of the scenarios being run, so the corpus can be shared between them
+        for(Scenario scenario : Scenario.values()) {
+            (scenario.isJar() ? jars : trees).add(scenario.getInput());
+        }
+
+        for(CorpusGenerator.Format format : trees) {
+            generator.writeTree(format, corpus.resolve(format.name().toLowerCase()));
+        }
+        for(CorpusGenerator.Format format : jars) {
+            generator.writeJar(format, corpus.resolve(format.name().toLowerCase() + ".jar"));
+        }
+
+        // Written last, so an interrupted generation is redone rather than reused
+        Files.write(marker, key.getBytes(StandardCharsets.UTF_8));
+        return corpus;
+    }
+
+    private Result measure(Scenario scenario, Path in, Path out, int iteration) throws Exception {
+        delete(out);
+        ModelConverter.processed.set(0);
+        ModelConverter.successful.set(0);
+
+        Translator translator = scenario.getTranslator();
+        ConversionReport report = new ConversionReport();
+
+        System.gc();
+        ProcessStats.resetPeaks();
+        long gcMillis = ProcessStats.gcMillis();
+        long gcCount = ProcessStats.gcCount();
+
+        report.start();
+        try {
+            new ConversionJob(translator, in.toFile(), out.toFile(), this.threads).run(report);
+        } finally {
+            report.finish();
+        }
+
+        return new Result(this.label, "run", scenario.getId(), ConversionEngine.name(translator), this.threads, iteration,
+                report.getFiles(), report.getFailures(), report.getBytesIn(), report.getBytesOut(), report.getDuration().toMillis(),
+                report.getFilesPerSecond(), report.getMegabytesPerSecond(), ProcessStats.gcMillis() - gcMillis,
+                ProcessStats.gcCount() - gcCount, ProcessStats.peakRss(), ProcessStats.peakHeap());
+    }
+
+    private static void delete(Path root) throws IOException {
+        if(!Files.exists(root)) {
+            return;
+        }
+
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                if(e != null) {
+                    throw e;
+                }
+
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * A single measured run, or the median of the runs of a scenario. Written as one line of JSON, whose
+     * fields are only ever added to, never renamed or removed, so results from different commits can be
+     * compared directly.
+     */
+    public static class Result {
+
+        public static final int SCHEMA = 1;
+
+        private final String label;
+        private final String kind;
+        private final String scenario;
+        private final String translator;
+        private final int threads;
+        private final int iteration;
+        private final long files;
+        private final long failures;
+        private final long bytesIn;
+        private final long bytesOut;
+        private final long wallMillis;
+        private final double filesPerSecond;
+        private final double mbPerSecond;
+        private final long gcMillis;
+        private final long gcCount;
+        private final long peakRssBytes;
+        private final long peakHeapBytes;
+
+        private Result(String label, String kind, String scenario, String translator, int threads, int iteration, long files, long failures,
+                       long bytesIn, long bytesOut, long wallMillis, double filesPerSecond, double mbPerSecond, long gcMillis, long gcCount,
+                       long peakRssBytes, long peakHeapBytes) {
+            this.label = label;
+            this.kind = kind;
+            this.scenario = scenario;
+            this.translator = translator;
+            this.threads = threads;
+            this.iteration = iteration;
+            this.files = files;
+            this.failures = failures;
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+            this.wallMillis = wallMillis;
+            this.filesPerSecond = filesPerSecond;
+            this.mbPerSecond = mbPerSecond;
+            this.gcMillis = gcMillis;
+            this.gcCount = gcCount;
+            this.peakRssBytes = peakRssBytes;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        /**
+         * Takes the median of each measurement independently, and the highest of each peak.
+         */
+        private static Result median(List<Result> runs) {
+            Result first = runs.get(0);
+            return new Result(first.label, "median", first.scenario, first.translator, first.threads, runs.size(), first.files,
+                    (long) median(runs, result -> result.failures), first.bytesIn, first.bytesOut,
+                    Math.round(median(runs, result -> result.wallMillis)), median(runs, result -> result.filesPerSecond),
+                    median(runs, result -> result.mbPerSecond), Math.round(median(runs, result -> result.gcMillis)),
+                    Math.round(median(runs, result -> result.gcCount)),
+                    runs.stream().mapToLong(result -> result.peakRssBytes).max().orElse(-1),
+                    runs.stream().mapToLong(result -> result.peakHeapBytes).max().orElse(-1));
+        }
+
+        private static double median(List<Result> runs, ToDoubleFunction<Result> value) {
+            double[] values = runs.stream().mapToDouble(value).sorted().toArray();
+            int middle = values.length / 2;
+            return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+        }
+
+        public String getScenario() {
+            return this.scenario;
+        }
+
+        public boolean isMedian() {
+            return this.kind.equals("median");
+        }
+
+        public long getFailures() {
+            return this.failures;
+        }
+
+        public long getWallMillis() {
+            return this.wallMillis;
+        }
+
+        public double getFilesPerSecond() {
+            return this.filesPerSecond;
+        }
+
+        public double getMegabytesPerSecond() {
+            return this.mbPerSecond;
+        }
+
+        public long getGcMillis() {
+            return this.gcMillis;
+        }
+
+        public long getPeakRssBytes() {
+            return this.peakRssBytes;
+        }
+
+        /**
+         * @return The result as a single line JSON object. For medians, {@code iteration} holds the
+         *         number of runs the median was taken over.
+         */
+        public String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"schema\":%d,\"label\":%s,\"kind\":\"%s\",\"scenario\":\"%s\",\"translator\":\"%s\",\"threads\":%d,\"iteration\":%d,"
+                            + "\"java\":%s,\"cpus\":%d,\"files\":%d,\"failures\":%d,\"bytesIn\":%d,\"bytesOut\":%d,\"wallMillis\":%d,"
+                            + "\"filesPerSecond\":%.2f,\"mbPerSecond\":%.2f,\"gcMillis\":%d,\"gcCount\":%d,\"peakRssBytes\":%d,\"peakHeapBytes\":%d}",
+                    SCHEMA, quote(this.label), this.kind, this.scenario, this.translator, this.threads, this.iteration,
+                    quote(System.getProperty("java.version")), Runtime.getRuntime().availableProcessors(), this.files, this.failures,
+                    this.bytesIn, this.bytesOut, this.wallMillis, this.filesPerSecond, this.mbPerSecond, this.gcMillis, this.gcCount,
+                    this.peakRssBytes, this.peakHeapBytes);
+        }
+
+        private static String quote(String value) {
+            if(value == null) {
+                return "null";
+            }
+
+            return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+        }
+    }
+
+    public static class Builder {
+
+        private ModelGenerator models = ModelGenerator.builder().build();
+        private int species = 200;
+        private int animations = 4;
+        private long seed = 0;
+        private Set<Scenario> scenarios = EnumSet.allOf(Scenario.class);
+        private int threads = ModelConverter.threads;
+        private int warmup = 1;
+        private int iterations = 3;
+        private String label;
+
+        public Builder models(ModelGenerator models) {
+            this.models = models;
+            return this;
+        }
+
+        public Builder species(int species) {
+            this.species = species;
+            return this;
+        }
+
+        public Builder animations(int animations) {
+            this.animations = animations;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder scenarios(Scenario... scenarios) {
+            this.scenarios = scenarios.length == 0 ? EnumSet.noneOf(Scenario.class) : EnumSet.copyOf(Arrays.asList(scenarios));
+            return this;
+        }
+
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        public Builder warmup(int warmup) {
+            this.warmup = warmup;
+            return this;
+        }
+
+        public Builder iterations(int iterations) {
+            this.iterations = iterations;
+            return this;
+        }
+
+        /**
+         * @param label Recorded with every result to tell runs apart, such as the commit being measured
+         */
+        public Builder label(String label) {
+            this.label = label;
+            return this;
+        }
+
+        public ThroughputHarness build() {
+            if(this.species < 1 || this.animations < 0 || this.threads < 1 || this.warmup < 0 || this.iterations < 1) {
+                throw new IllegalArgumentException("The harness needs at least one species, thread and iteration, and no negative counts");
+            }
+
+            return new ThroughputHarness(this);
+        }
+    }
+}
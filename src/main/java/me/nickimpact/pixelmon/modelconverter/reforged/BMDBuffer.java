@@ -0,0 +1,88 @@
+package me.nickimpact.pixelmon.modelconverter.reforged;
+
+import com.google.common.io.ByteStreams;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads the fields of a BMD file out of a buffer with absolute big endian reads. The position of the
+ * buffer itself is never moved, so the same buffer, such as a mapped file, may be decoded by any number
+ * of threads at once.
+ */
+final class BMDBuffer {
+
+    private final ByteBuffer data;
+    private int position;
+
+    BMDBuffer(@NotNull ByteBuffer data) {
+        this.data = data.duplicate().order(ByteOrder.BIG_ENDIAN);
+        this.position = data.position();
+    }
+
+    /**
+     * Reads the whole of a stream into a buffer, presized when the size of the stream is known.
+     *
+     * @param size The number of bytes in the stream, or -1 if it is not known
+     */
+    @NotNull
+    static ByteBuffer load(@NotNull InputStream in, long size) throws IOException {
+        if(size < 0 || size > Integer.MAX_VALUE) {
+            return ByteBuffer.wrap(ByteStreams.toByteArray(in));
+        }
+
+        byte[] data = new byte[(int) size];
+        ByteStreams.readFully(in, data);
+        return ByteBuffer.wrap(data);
+    }
+
+    byte readByte() {
+        return this.data.get(this.position++);
+    }
+
+    short readShort() {
+        short value = this.data.getShort(this.position);
+        this.position += 2;
+        return value;
+    }
+
+    float readFloat() {
+        float value = this.data.getFloat(this.position);
+        this.position += 4;
+        return value;
+    }
+
+    /**
+     * Reads a run of consecutive floats, such as the position, normal and UV of a vertex, in one go.
+     */
+    void readFloats(@NotNull float[] into, int count) {
+        int position = this.position;
+        for(int i = 0; i < count; i++) {
+            into[i] = this.data.getFloat(position);
+            position += 4;
+        }
+        this.position = position;
+    }
+
+    /**
+     * Reads a string of big endian chars, up to and including the null char which ends it.
+     */
+    @NotNull
+    String readNullTerm() {
+        int end = this.position;
+        while(this.data.getChar(end) != 0) {
+            end += 2;
+        }
+
+        char[] chars = new char[(end - this.position) / 2];
+        for(int i = 0; i < chars.length; i++) {
+            chars[i] = this.data.getChar(this.position + i * 2);
+        }
+
+        this.position = end + 2;
+        return new String(chars);
+    }
+}
@@ -0,0 +1,129 @@
+package me.nickimpact.pixelmon.modelconverter.reforged;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.NodesBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SkeletonBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.TrianglesBlock;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a Reforged BMD file straight into the studiomdl model, without going through text SMD. The file
+ * is decoded from a buffer, such as a mapped file, with absolute reads which leave the buffer untouched.
+ */
+public class BMDReader {
+
+    /**
+     * Reads the whole of the stream into memory before decoding it.
+     */
+    public SMDFile read(@NotNull InputStream input) throws IOException {
+        return this.read(BMDBuffer.load(input, -1));
+    }
+
+    /**
+     * Decodes the remaining bytes of the buffer, without moving its position.
+     */
+    public SMDFile read(@NotNull ByteBuffer data) {
+        return this.read(new BMDBuffer(data));
+    }
+
+    // | version (byte) |
+    // | nodes | skeleton | triangles |
+    private SMDFile read(@NotNull BMDBuffer in) {
+        SMDFile file = new SMDFile();
+        in.readByte(); // version, always 1
+
+        file.blocks.add(readNodesBlock(in));
+        file.blocks.add(readSkeletonBlock(in));
+
+        TrianglesBlock triangles = readTrianglesBlock(in);
+        if(!triangles.triangles.isEmpty()) {
+            file.blocks.add(triangles);
+        }
+
+        return file;
+    }
+
+    // | count (short) |
+    //   | id (short) | parent (short) | name (chars, null terminated) |
+    private NodesBlock readNodesBlock(@NotNull BMDBuffer in) {
+        NodesBlock block = new NodesBlock();
+
+        int count = in.readShort();
+        for(int i = 0; i < count; i++) {
+            int id = in.readShort();
+            int parent = in.readShort();
+            block.bones.add(new NodesBlock.Bone(id, in.readNullTerm(), parent));
+        }
+
+        return block;
+    }
+
+    // | keyframe count (short) |
+    //   | bone count (short) |
+    //     | bone ID (short) | posX | posY | posZ | rotX | rotY | rotZ (float) |
+    private SkeletonBlock readSkeletonBlock(@NotNull BMDBuffer in) {
+        SkeletonBlock block = new SkeletonBlock();
+
+        int count = in.readShort();
+        for(int i = 0; i < count; i++) {
+            SkeletonBlock.Keyframe keyframe = new SkeletonBlock.Keyframe(i);
+            int bones = in.readShort();
+            for(int j = 0; j < bones; j++) {
+                keyframe.states.add(new SkeletonBlock.BoneState(in.readShort(),
+                        in.readFloat(), in.readFloat(), in.readFloat(),
+                        in.readFloat(), in.readFloat(), in.readFloat()
+                ));
+            }
+            block.keyframes.add(keyframe);
+        }
+
+        return block;
+    }
+
+    // | material count (short) |
+    //   | material name (chars, null terminated) |
+    // | triangle count (short) |
+    //   | material index (byte) |
+    //   | parent bone (short) | posX | posY | posZ | normX | normY | normZ | U | V (float) | link count (byte) |
+    //     | link bone ID (short) | link weight (float) |
+    //   ... for each of the three vertices
+    private TrianglesBlock readTrianglesBlock(@NotNull BMDBuffer in) {
+        TrianglesBlock block = new TrianglesBlock();
+
+        List<String> materials = new ArrayList<>();
+        int count = in.readShort();
+        for(int i = 0; i < count; i++) {
+            materials.add(in.readNullTerm());
+        }
+
+        float[] fields = new float[8];
+        count = in.readShort();
+        for(int i = 0; i < count; i++) {
+            String material = materials.get(in.readByte());
+            TrianglesBlock.Vertex[] vertices = new TrianglesBlock.Vertex[3];
+            for(int j = 0; j < vertices.length; j++) {
+                int parent = in.readShort();
+                in.readFloats(fields, fields.length);
+                TrianglesBlock.Vertex vertex = new TrianglesBlock.Vertex(parent,
+                        fields[0], fields[1], fields[2],
+                        fields[3], fields[4], fields[5],
+                        fields[6], fields[7]
+                );
+                int links = in.readByte();
+                for(int k = 0; k < links; k++) {
+                    vertex.links.add(new TrianglesBlock.Link(in.readShort(), in.readFloat()));
+                }
+                vertices[j] = vertex;
+            }
+            block.triangles.add(new TrianglesBlock.Triangle(material, vertices[0], vertices[1], vertices[2]));
+        }
+
+        return block;
+    }
+}
@@ -0,0 +1,110 @@
+package me.nickimpact.pixelmon.modelconverter.reforged;
+
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.NodesBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFileBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SkeletonBlock;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.TrianglesBlock;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the studiomdl model as a Reforged BMD file, without going through text SMD. See {@link BMDReader}
+ * for the layout. BMD has no equivalent of a vertex animation block, so any such block is dropped, just as
+ * it is when encoding text SMD.
+ */
+public class BMDWriter {
+
+    public void write(@NotNull SMDFile file, @NotNull DataOutputStream out) throws IOException {
+        out.writeByte(1);
+
+        NodesBlock nodes = first(file, NodesBlock.class);
+        List<NodesBlock.Bone> bones = nodes != null ? nodes.bones : Collections.emptyList();
+        out.writeShort(count(bones.size(), Short.MAX_VALUE, "bones"));
+        for(NodesBlock.Bone bone : bones) {
+            out.writeShort(bone.id);
+            out.writeShort(bone.parent);
+            writeNullTerm(bone.name, out);
+        }
+
+        SkeletonBlock skeleton = first(file, SkeletonBlock.class);
+        List<SkeletonBlock.Keyframe> keyframes = skeleton != null ? skeleton.keyframes : Collections.emptyList();
+        out.writeShort(count(keyframes.size(), Short.MAX_VALUE, "keyframes"));
+        for(SkeletonBlock.Keyframe keyframe : keyframes) {
+            out.writeShort(count(keyframe.states.size(), Short.MAX_VALUE, "bone states in a keyframe"));
+            for(SkeletonBlock.BoneState state : keyframe.states) {
+                out.writeShort(state.bone);
+                out.writeFloat(state.posX);
+                out.writeFloat(state.posY);
+                out.writeFloat(state.posZ);
+                out.writeFloat(state.rotX);
+                out.writeFloat(state.rotY);
+                out.writeFloat(state.rotZ);
+            }
+        }
+
+        TrianglesBlock triangles = first(file, TrianglesBlock.class);
+        List<TrianglesBlock.Triangle> tris = triangles != null ? triangles.triangles : Collections.emptyList();
+        Map<String, Integer> materials = new LinkedHashMap<>();
+        for(TrianglesBlock.Triangle triangle : tris) {
+            materials.putIfAbsent(triangle.material, materials.size());
+        }
+
+        out.writeShort(count(materials.size(), Byte.MAX_VALUE, "materials"));
+        for(String material : materials.keySet()) {
+            writeNullTerm(material, out);
+        }
+
+        out.writeShort(count(tris.size(), Short.MAX_VALUE, "triangles"));
+        for(TrianglesBlock.Triangle triangle : tris) {
+            out.writeByte(materials.get(triangle.material));
+            for(TrianglesBlock.Vertex vertex : triangle.vertices) {
+                out.writeShort(vertex.parentBone);
+                out.writeFloat(vertex.posX);
+                out.writeFloat(vertex.posY);
+                out.writeFloat(vertex.posZ);
+                out.writeFloat(vertex.normX);
+                out.writeFloat(vertex.normY);
+                out.writeFloat(vertex.normZ);
+                out.writeFloat(vertex.u);
+                out.writeFloat(vertex.v);
+                out.writeByte(count(vertex.links.size(), Byte.MAX_VALUE, "links on a vertex"));
+                for(TrianglesBlock.Link link : vertex.links) {
+                    out.writeShort(link.bone);
+                    out.writeFloat(link.weight);
+                }
+            }
+        }
+
+        out.flush();
+    }
+
+    private static <T extends SMDFileBlock> T first(@NotNull SMDFile file, @NotNull Class<T> type) {
+        for(SMDFileBlock block : file.blocks) {
+            if(type.isInstance(block)) {
+                return type.cast(block);
+            }
+        }
+
+        return null;
+    }
+
+    private static int count(int count, int max, String what) {
+        if(count > max) {
+            throw new IllegalArgumentException("BMD files hold at most " + max + " " + what + ", found " + count);
+        }
+
+        return count;
+    }
+
+    private static void writeNullTerm(@NotNull String value, @NotNull DataOutputStream out) throws IOException {
+        out.writeChars(value);
+        out.writeChar(0);
+    }
+}
@@ -2,34 +2,24 @@ package me.nickimpact.pixelmon.modelconverter.reforged;
 
 import com.google.common.collect.Lists;
 import com.google.common.io.ByteStreams;
+import me.nickimpact.pixelmon.modelconverter.Asset;
 import me.nickimpact.pixelmon.modelconverter.Translator;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDTextStreamReader;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.Lexer;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer.StreamPrinter;
+import me.nickimpact.pixelmon.modelconverter.util.ByteBufferInputStream;
 import me.nickimpact.pixelmon.modelconverter.util.PrettyPrinter;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
-import java.io.BufferedReader;
-import java.io.DataInputStream;
 import java.io.DataOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
-import java.util.Objects;
-import java.util.Optional;
-import java.util.Queue;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 import static me.nickimpact.pixelmon.modelconverter.ModelConverter.*;
 
@@ -43,134 +33,66 @@ public abstract class ReforgedTranslator implements Translator {
         }
 
         @Override
-        public void process(File directory, File output) {
-            debug("Processing Directory: " + directory.getAbsolutePath());
-
-            output.toPath().resolve(directory.getName()).toFile().mkdirs();
-
-            for(File file : Objects.requireNonNull(directory.listFiles())) {
-                if(file.getName().endsWith(".bmd")) {
-                    debug("Parsing BMD: " + file.getName());
-                    processed.getAndIncrement();
-                    try {
-                        this.decode(file.getName(), new FileInputStream(file), new File(output, directory.getName()));
-                        successful.incrementAndGet();
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to read BMD for pokemon: " + String.format("%s (%s)", directory.getName(), file.getName()), e);
-                    }
-                } else if(file.getName().endsWith(".smd")) {
-                    debug("Cloning SMD: " + file.getName());
-                    processed.getAndIncrement();
-                    try {
-                        Files.copy(file.toPath(), output.toPath().resolve(directory.getName()).resolve(file.getName()));
-                        successful.incrementAndGet();
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to clone SMD for pokemon: " + String.format("%s (%s)", directory.getName(), file.getName()), e);
-                    }
-                } else if(file.getName().endsWith(".pqc")) {
-                    debug("Cloning PQC: " + file.getName());
-                    processed.getAndIncrement();
-                    try {
-                        Files.copy(file.toPath(), output.toPath().resolve(directory.getName()).resolve(file.getName()));
-                        successful.incrementAndGet();
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to clone PQC for pokemon: " + String.format("%s (%s)", directory.getName(), file.getName()), e);
-                    }
-                } else if(file.isDirectory()) {
-                    process(file, output.toPath().resolve(directory.getName()).toFile());
-                }
-            }
+        public boolean isPassthrough(String name) {
+            return name.endsWith(".smd") || name.endsWith(".pqc");
         }
 
         @Override
-        public void process(JarFile file, JarEntry entry, File output) {
-            debug("Processing entry: " + entry.getName());
-            Matcher matcher = JAR_PATTERN.matcher(entry.getName());
-            matcher.find();
-            String[] remaining = matcher.group("rest").split("[/]");
-
-            Path target = output.toPath().resolve(matcher.group("species"));
-            String work;
-            if(remaining.length > 1) {
-                for(int i = 0; i < remaining.length - 1; i++) {
-                    target = target.resolve(remaining[i]);
-                }
+        public String getOutputName(String name) {
+            if(name.endsWith(".bmd")) {
+                return name.replaceFirst("[.][^.]+$", "") + ".smd";
+            }
 
-                work = remaining[remaining.length - 1];
+            return name;
+        }
+
+        @Override
+        public void translate(Asset asset, InputStream input, OutputStream output) throws Exception {
+            if(asset.getName().endsWith(".bmd")) {
+                this.decode(BMDBuffer.load(input, asset.getSize()), output);
             } else {
-                work = remaining[0];
-            }
-            target.toFile().mkdirs();
-
-            if(entry.getName().endsWith(".bmd")) {
-                debug("Decoding BMD: " + work);
-
-                processed.getAndIncrement();
-                try {
-                    this.decode(work, file.getInputStream(entry), target.toFile());
-                    successful.incrementAndGet();
-                } catch (Exception e) {
-                    System.err.println("Failed to read BMD for pokemon: " + String.format("%s", entry.getName()));
-                    e.printStackTrace();
-                    System.exit(1);
-                }
-            } else if(entry.getName().endsWith(".smd")) {
-                debug("Cloning SMD: " + work);
-                processed.getAndIncrement();
-                try {
-                    this.copy(file.getInputStream(entry), target.resolve(work));
-                    successful.incrementAndGet();
-                } catch (Exception e) {
-                    System.err.println("Failed to clone SMD for pokemon: " + String.format("%s", entry.getName()));
-                }
-            } else if(entry.getName().endsWith(".pqc")) {
-                debug("Cloning PQC: " + work);
-                processed.getAndIncrement();
-                try {
-                    this.copy(file.getInputStream(entry), target.resolve(work));
-                    successful.incrementAndGet();
-                } catch (Exception e) {
-                    System.err.println("Failed to clone PQC for pokemon: " + String.format("%s", entry.getName()));
-                    e.printStackTrace();
-                }
+                ByteStreams.copy(input, output);
+                output.flush();
             }
         }
 
-        private void copy(InputStream in, Path target) throws Exception {
-            FileOutputStream stream = new FileOutputStream(target.toFile());
-            ByteStreams.copy(in, stream);
-            stream.flush();
-            stream.close();
+        @Override
+        public void translate(Asset asset, ByteBuffer input, OutputStream output) throws Exception {
+            if(asset.getName().endsWith(".bmd")) {
+                this.decode(input, output);
+            } else {
+                this.translate(asset, new ByteBufferInputStream(input), output);
+            }
         }
 
-        private void decode(String filename, InputStream input, File output) throws Exception {
-            File outFile = new File(output, filename.replaceFirst("[.][^.]+$", "") + ".smd");
-            outFile.getParentFile().mkdirs();
-            FileWriter writer = new FileWriter(outFile);
+        /**
+         * Decodes the model into a single reusable buffer, which is only written out as it fills and once
+         * the model is done, rather than once per line.
+         */
+        private void decode(ByteBuffer input, OutputStream output) throws Exception {
+            StreamPrinter out = new StreamPrinter(output);
 
-            BufferedInputStream bin = new BufferedInputStream(input);
-
-            DataInputStream in = new DataInputStream(bin);
+            BMDBuffer in = new BMDBuffer(input);
             byte version = in.readByte();
 
-            writeLine(writer, "version " + version);
+            out.append("version ").append(version).append('\n');
 
             int numNodes = in.readShort();
-            writeLine(writer, "nodes");
+            out.append("nodes\n");
 
             for(int i = 0; i < numNodes; i++) {
                 short id = in.readShort();
                 short amount = in.readShort();
-                String name = readNullTerm(in);
-                writeLine(writer, String.format("%d \"%s\" %d", id, name, amount));
+                String name = in.readNullTerm();
+                out.append(id).append(" \"").append(name).append("\" ").append(amount).append('\n');
             }
-            writeLine(writer, "end");
+            out.append("end\n");
 
-            writeLine(writer, "skeleton");
+            out.append("skeleton\n");
             int numSkeletons = in.readShort();
 
             for(int i = 0; i < numSkeletons; i++) {
-                writeLine(writer, String.format("time %d", i));
+                out.append("time ").append(i).append('\n');
 
                 short amount = in.readShort();
                 for(int k = 0; k < amount; k++) {
@@ -183,90 +105,55 @@ public abstract class ReforgedTranslator implements Translator {
                     float roty = in.readFloat();
                     float rotz = in.readFloat();
 
-                    if(allZero(lx, ly, lz, rotx, roty, rotz)) {
-                        writeLine(writer, String.format("%d  0 0 0  0 0 0", triangles));
+                    out.append(triangles);
+                    if(lx == 0 && ly == 0 && lz == 0 && rotx == 0 && roty == 0 && rotz == 0) {
+                        out.append("  0 0 0  0 0 0\n");
                     } else {
-                        writeLine(writer, String.format(Locale.US, "%d  %f %f %f  %f %f %f", triangles, lx, ly, lz, rotx, roty, rotz));
+                        out.append("  ").append(lx, 6).append(' ').append(ly, 6).append(' ').append(lz, 6)
+                                .append("  ").append(rotx, 6).append(' ').append(roty, 6).append(' ').append(rotz, 6)
+                                .append('\n');
                     }
                 }
             }
-            writeLine(writer, "end");
+            out.append("end\n");
 
             List<String> names = Lists.newArrayList();
             int max = in.readShort();
             for(int i = 0; i < max; i++) {
-                names.add(readNullTerm(in));
+                names.add(in.readNullTerm());
             }
 
             int numTriangles = in.readShort();
             if(numTriangles > 0) {
-                writeLine(writer, "triangles");
+                out.append("triangles\n");
+
+                float[] vertex = new float[8];
 
                 for (int i = 0; i < numTriangles; i++) {
                     String name = names.get(in.readByte());
-                    writeLine(writer, name);
+                    out.append(name).append('\n');
                     for (int k = 0; k < 3; k++) {
                         in.readShort();
-                        float x = in.readFloat();
-                        float y = in.readFloat();
-                        float z = in.readFloat();
-                        float normX = in.readFloat();
-                        float normY = in.readFloat();
-                        float normZ = in.readFloat();
-                        float u = in.readFloat();
-                        float v = in.readFloat();
+                        // position, normal and UV
+                        in.readFloats(vertex, vertex.length);
 
                         byte links = in.readByte();
-                        String out = String.format(Locale.US, "0  %f %f %f  %f %f %f  %f %f %d",
-                                x, y, z, normX, normY, normZ, u, v, links
-                        );
+                        out.append("0  ").append(vertex[0], 6).append(' ').append(vertex[1], 6).append(' ').append(vertex[2], 6)
+                                .append("  ").append(vertex[3], 6).append(' ').append(vertex[4], 6).append(' ').append(vertex[5], 6)
+                                .append("  ").append(vertex[6], 6).append(' ').append(vertex[7], 6)
+                                .append(' ').append(links);
                         for (int j = 0; j < links; j++) {
                             int bone = in.readShort();
                             float weight = in.readFloat();
-                            out = String.format(Locale.US, "%s %d %f", out, bone, weight);
+                            out.append(' ').append(bone).append(' ').append(weight, 6);
                         }
-
-                        writeLine(writer, out);
+                        out.append('\n');
                     }
                 }
-                writeLine(writer, "end");
-            }
-
-            writer.flush();
-            in.close();
-            bin.close();
-            writer.close();
-        }
-
-        private static void writeLine(FileWriter writer, String out) throws Exception {
-            writer.write(out);
-            writer.write("\n");
-            writer.flush();
-        }
-
-        private static String readNullTerm(DataInputStream in) throws IOException {
-            StringBuilder str = new StringBuilder();
-            char ch = 0;
-
-            do {
-                if (ch != 0) {
-                    str.append(ch);
-                }
-
-                ch = in.readChar();
-            } while(ch != 0);
-
-            return str.toString();
-        }
-
-        private static boolean allZero(float... in) {
-            for(float x : in) {
-                if(x != 0) {
-                    return false;
-                }
+                out.append("end\n");
             }
 
-            return true;
+            out.flush();
         }
     }
 
@@ -278,187 +165,158 @@ public abstract class ReforgedTranslator implements Translator {
         }
 
         @Override
-        public void process(File directory, File output) {
-            debug("Processing Directory: " + directory.getAbsolutePath());
-            output.toPath().resolve(directory.getName()).toFile().mkdirs();
-
-            for(File file : Objects.requireNonNull(directory.listFiles())) {
-                if (file.getName().endsWith(".smd")) {
-                    debug("Encoding SMD: " + file.getName());
-                    processed.getAndIncrement();
-
-                    try {
-                        encode(file, new File(output, directory.getName()));
-                        successful.incrementAndGet();
-                    } catch (Exception e) {
-                        System.err.println("Failed to read SMD for pokemon: " + String.format("%s (%s) -", directory.getName(), file.getName()) + e.getMessage());
-                        e.printStackTrace();
-                        System.exit(1);
-                    }
-
-                } else if(file.isDirectory()) {
-                    process(file, output.toPath().resolve(directory.getName()).toFile());
-                }
-            }
+        public String getOutputName(String name) {
+            return name.replaceFirst("[.][^.]+$", "") + ".bmd";
         }
 
         @Override
-        public void process(JarFile file, JarEntry entry, File output) {
-            throw new UnsupportedOperationException();
+        public void translate(Asset asset, InputStream input, OutputStream output) throws Exception {
+            this.encode(asset, new Lexer(Channels.newChannel(input), SMDTextStreamReader.BUFFER_SIZE), output);
         }
 
-        private void encode(File input, File output) throws Exception {
-            File outFile = new File(output, input.getName().replaceFirst("[.][^.]+$", "") + ".bmd");
-            outFile.getParentFile().mkdirs();
-            BufferedReader reader = new BufferedReader(new FileReader(input));
-
-            BufferedOutputStream bin = new BufferedOutputStream(new FileOutputStream(outFile));
-            DataOutputStream out = new DataOutputStream(bin);
-
-            try {
-                Marker marker = Marker.None;
-                Queue<String> nodes = new LinkedList<>();
-                Queue<String> skeleton = new LinkedList<>();
-                Queue<String> triangles = new LinkedList<>();
+        @Override
+        public void translate(Asset asset, ByteBuffer input, OutputStream output) throws Exception {
+            if(input.hasArray()) {
+                this.encode(asset, new Lexer(input), output);
+            } else {
+                this.translate(asset, new ByteBufferInputStream(input), output);
+            }
+        }
 
-                PrettyPrinter printer = new PrettyPrinter(80);
-                printer.add("File Contents for " + input.getName()).center();
-                printer.hr('-');
-                printer.add("Marker: " + marker.name());
-
-                String next;
-                while ((next = reader.readLine()) != null) {
-                    Optional<Marker> update = Marker.get(next);
-                    if (update.isPresent()) {
-                        marker = update.get();
-                        printer.add("Marker: " + marker.name());
-                    } else {
-                        if (!next.equals("end") && marker != Marker.None) {
-                            switch (marker) {
-                                case Nodes:
-                                    printer.add("  Node: " + next);
-                                    nodes.add(next);
-                                    break;
-                                case Skeleton:
-                                    printer.add("  Skeleton: " + next);
-                                    skeleton.add(next);
-                                    break;
-                                case Triangles:
-                                    printer.add("  Triangles: " + next);
-                                    triangles.add(next);
-                                    break;
-                            }
-                        }
-                    }
+        /**
+         * Encodes the model in a single pass over its tokens, parsing each value once, straight into its
+         * binary form. Every section of a BMD file is preceded by its size, and the material table comes
+         * before the triangles which name them, so each section is staged in binary until the input has
+         * been read, rather than written the moment it is parsed.
+         */
+        private void encode(Asset asset, Lexer file, OutputStream output) throws Exception {
+            Section nodes = new Section();
+            Section skeleton = new Section();
+            Section keyframe = new Section();
+            Section triangles = new Section();
+            Map<String, Integer> materials = new LinkedHashMap<>();
+
+            // States found before the first time line belong to the first keyframe, and there is always at least one
+            boolean timed = false;
+
+            Marker marker = Marker.None;
+            while(!file.eof()) {
+                Marker update = Marker.get(file);
+                if(update != null) {
+                    marker = update;
+                    file.skip();
+                    file.expectLine();
+                    continue;
                 }
 
-                out.writeByte(1);
-                out.writeShort(nodes.size());
-                Pattern nodeMatcher = Pattern.compile("([0-9\\-]+) \"((?:\\\\\"|.)*?)\" +([0-9\\-]+)");
-                for (String node : nodes) {
-                    Matcher matcher = nodeMatcher.matcher(node);
-                    if(!matcher.matches()) {
-                        throw new Exception("Failed to read SMD node");
-                    }
-                    out.writeShort(Integer.parseInt(matcher.group(1)));
-                    out.writeShort(Integer.parseInt(matcher.group(3)));
-                    out.writeChars(matcher.group(2) + '\u0000');
+                if(file.atLine() || file.testLine("end", false)) {
+                    skipLine(file);
+                    continue;
                 }
 
-                List<Skeleton> skeletons = Lists.newArrayList();
-                boolean start = true;
-                Skeleton.Builder working = Skeleton.builder();
-                for (String in : skeleton) {
-                    if (in.startsWith("time")) {
-                        if (!start) {
-                            skeletons.add(working.build());
-                            working = Skeleton.builder();
+                switch(marker) {
+                    case Nodes:
+                        nodes.writeShort(file.nextInt());
+                        String name = file.nextQuotedString();
+                        nodes.writeShort(file.nextInt());
+                        nodes.writeNullTerm(name);
+                        nodes.count++;
+                        file.expectLine();
+                        break;
+                    case Skeleton:
+                        if(file.test("time")) {
+                            if(timed) {
+                                keyframe.writeTo(skeleton, "bone states in a keyframe");
+                            }
+                            timed = true;
+                            skipLine(file);
+                        } else {
+                            keyframe.writeShort(file.nextInt());
+                            for(int i = 0; i < 6; i++) {
+                                keyframe.writeFloat(file.nextFloat());
+                            }
+                            keyframe.count++;
+                            file.expectLine();
                         }
-
-                        start = false;
-                        working = working.time(Integer.parseInt(in.split(" ")[1]));
-                    } else {
-                        working.append(in);
-                    }
+                        break;
+                    case Triangles:
+                        String material = file.nextRestOfLine();
+                        file.expectLine();
+                        Integer index = materials.get(material);
+                        if(index == null) {
+                            index = materials.size();
+                            materials.put(material, index);
+                        }
+                        triangles.writeByte(index);
+                        for(int i = 0; i < 3; i++) {
+                            readVertex(file, triangles);
+                        }
+                        triangles.count++;
+                        break;
+                    default:
+                        skipLine(file);
                 }
+            }
+            keyframe.writeTo(skeleton, "bone states in a keyframe");
+
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+            out.writeByte(1);
+            out.writeShort(count(nodes.count, Short.MAX_VALUE, "bones"));
+            out.write(nodes.data, 0, nodes.size);
+            out.writeShort(count(skeleton.count, Short.MAX_VALUE, "keyframes"));
+            out.write(skeleton.data, 0, skeleton.size);
+            out.writeShort(count(materials.size(), Byte.MAX_VALUE, "materials"));
+            for(String material : materials.keySet()) {
+                out.writeChars(material);
+                out.writeChar(0);
+            }
+            out.writeShort(count(triangles.count, Short.MAX_VALUE, "triangles"));
+            out.write(triangles.data, 0, triangles.size);
+            out.flush();
 
-                skeletons.add(working.build());
-
+            if(debug) {
+                PrettyPrinter printer = new PrettyPrinter(80);
+                printer.add("File Contents for " + asset.getFileName()).center();
                 printer.hr('-');
-                out.writeShort(skeletons.size());
-                for (Skeleton sk : skeletons) {
-                    out.writeShort(sk.components.size());
-                    for (String comp : sk.components) {
-                        String[] tokens = comp.split("[ ]+");
-                        out.writeShort(Integer.parseInt(tokens[0]));
-                        out.writeFloat(Float.parseFloat(tokens[1]));
-                        out.writeFloat(Float.parseFloat(tokens[2]));
-                        out.writeFloat(Float.parseFloat(tokens[3]));
-                        out.writeFloat(Float.parseFloat(tokens[4]));
-                        out.writeFloat(Float.parseFloat(tokens[5]));
-                        out.writeFloat(Float.parseFloat(tokens[6]));
-                    }
-                }
-
-                if(debug) {
-                    printer.log(System.out);
-                }
-
-                List<Triangle> tris = Lists.newArrayList();
-                while (!triangles.isEmpty()) {
-                    Triangle.Builder builder = Triangle.builder();
-                    String mat = triangles.poll();
-                    builder.name(mat);
-
-                    for (int i = 0; i < 3; i++) {
-                        builder.append(triangles.poll());
-                    }
+                printer.add("Nodes: " + nodes.count);
+                printer.add("Keyframes: " + skeleton.count);
+                printer.add("Materials: " + materials.size());
+                printer.add("Triangles: " + triangles.count);
+                printer.log(System.out);
+            }
+        }
 
-                    tris.add(builder.build());
-                }
+        // | parent bone | posX posY posZ | normX normY normZ | U V | link count | (link bone ID, link weight)... |
+        private static void readVertex(Lexer file, Section out) {
+            out.writeShort(file.nextInt());
+            for(int i = 0; i < 8; i++) {
+                out.writeFloat(file.nextFloat());
+            }
 
-                List<String> materials = Lists.newArrayList();
-                for (Triangle triangle : tris) {
-                    if (!materials.contains(triangle.name)) {
-                        materials.add(triangle.name);
-                    }
-                }
-                out.writeShort(materials.size());
+            int links = file.nextInt();
+            out.writeByte(links);
+            for(int i = 0; i < links; i++) {
+                out.writeShort(file.nextInt());
+                out.writeFloat(file.nextFloat());
+            }
+            file.expectLine();
+        }
 
-                for (String material : materials) {
-                    out.writeChars(material + '\u0000');
-                }
-                out.writeShort(tris.size());
-
-                for (Triangle triangle : tris) {
-                    out.writeByte(materials.indexOf(triangle.name));
-
-                    for (String line : triangle.components) {
-                        String split[] = line.split("[ ]+");
-                        out.writeShort(Integer.parseInt(split[0]));
-                        out.writeFloat(Float.parseFloat(split[1]));
-                        out.writeFloat(Float.parseFloat(split[2]));
-                        out.writeFloat(Float.parseFloat(split[3]));
-                        out.writeFloat(Float.parseFloat(split[4]));
-                        out.writeFloat(Float.parseFloat(split[5]));
-                        out.writeFloat(Float.parseFloat(split[6]));
-                        out.writeFloat(Float.parseFloat(split[7]));
-                        out.writeFloat(Float.parseFloat(split[8]));
-                        out.writeByte(Integer.parseInt(split[9]));
-
-                        int links = Byte.parseByte(split[9]);
-
-                        for(int w = 0; w < links; w++) {
-                            out.writeShort(Integer.parseInt(split[10 + w * 2]));
-                            out.writeFloat(Float.parseFloat(split[11 + w * 2]));
-                        }
-                    }
-                }
+        private static void skipLine(Lexer file) {
+            while(!file.eof() && !file.atLine()) {
+                file.skip();
+            }
+            if(file.atLine()) {
+                file.expectLine();
+            }
+        }
 
-            } finally {
-                out.close();
-                reader.close();
+        private static int count(int count, int max, String what) {
+            if(count > max) {
+                throw new IllegalArgumentException("BMD files hold at most " + max + " " + what + ", found " + count);
             }
+
+            return count;
         }
 
         private enum Marker {
@@ -475,79 +333,75 @@ public abstract class ReforgedTranslator implements Translator {
                 this.key = key;
             }
 
-            public static Optional<Marker> get(String input) {
-                return Arrays.stream(values()).filter(x -> x != None)
-                        .filter(x -> x.key.equalsIgnoreCase(input))
-                        .findAny();
-            }
-        }
-
-        private static class Skeleton {
-
-            private final int time;
-            private final List<String> components;
+            private static final Marker[] VALUES = values();
 
-            private Skeleton(Builder builder) {
-                this.time = builder.time;
-                this.components = builder.pieces;
-            }
+            /**
+             * @return The marker the current line consists of, in any case, or null if it does not start a block
+             */
+            public static Marker get(Lexer file) {
+                for(Marker marker : VALUES) {
+                    if(marker != None && file.testLine(marker.key, true)) {
+                        return marker;
+                    }
+                }
 
-            public static Builder builder() {
-                return new Builder();
+                return null;
             }
+        }
 
-            public static class Builder {
-
-                private int time;
-                private List<String> pieces = Lists.newArrayList();
+        /**
+         * A growable run of big endian bytes, along with the number of entries written into it.
+         */
+        private static class Section {
 
-                public Builder time(int time) {
-                    this.time = time;
-                    return this;
-                }
+            private byte[] data = new byte[256];
+            private int size;
+            private int count;
 
-                public Builder append(String component) {
-                    this.pieces.add(component);
-                    return this;
-                }
-
-                public Skeleton build() {
-                    return new Skeleton(this);
+            private void require(int space) {
+                if(this.data.length - this.size < space) {
+                    this.data = Arrays.copyOf(this.data, Math.max(this.data.length * 2, this.size + space));
                 }
             }
-        }
-
-        private static class Triangle {
-            private final String name;
-            private final List<String> components;
 
-            private Triangle(Builder builder) {
-                this.name = builder.name;
-                this.components = builder.pieces;
+            public void writeByte(int value) {
+                this.require(1);
+                this.data[this.size++] = (byte) value;
             }
 
-            public static Builder builder() {
-                return new Builder();
+            public void writeShort(int value) {
+                this.require(2);
+                this.data[this.size++] = (byte) (value >>> 8);
+                this.data[this.size++] = (byte) value;
             }
 
-            public static class Builder {
-
-                private String name;
-                private List<String> pieces = Lists.newArrayList();
-
-                public Builder name(String name) {
-                    this.name = name;
-                    return this;
-                }
+            public void writeFloat(float value) {
+                int bits = Float.floatToIntBits(value);
+                this.require(4);
+                this.data[this.size++] = (byte) (bits >>> 24);
+                this.data[this.size++] = (byte) (bits >>> 16);
+                this.data[this.size++] = (byte) (bits >>> 8);
+                this.data[this.size++] = (byte) bits;
+            }
 
-                public Builder append(String component) {
-                    this.pieces.add(component);
-                    return this;
+            public void writeNullTerm(String value) {
+                for(int i = 0; i < value.length(); i++) {
+                    this.writeShort(value.charAt(i));
                 }
+                this.writeShort(0);
+            }
 
-                public Triangle build() {
-                    return new Triangle(this);
-                }
+            /**
+             * Appends this section to another, preceded by its count, as a single entry, and then empties it.
+             */
+            public void writeTo(Section other, String what) {
+                other.writeShort(count(this.count, Short.MAX_VALUE, what));
+                other.require(this.size);
+                System.arraycopy(this.data, 0, other.data, other.size, this.size);
+                other.size += this.size;
+                other.count++;
+                this.size = 0;
+                this.count = 0;
             }
         }
     }
@@ -0,0 +1,145 @@
+package me.nickimpact.pixelmon.modelconverter.transcode;
+
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import me.nickimpact.pixelmon.modelconverter.Asset;
+import me.nickimpact.pixelmon.modelconverter.ModelConverter;
+import me.nickimpact.pixelmon.modelconverter.Translator;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDBinaryReader;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats.SMDBinaryWriter;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.SMDFile;
+import me.nickimpact.pixelmon.modelconverter.reforged.BMDReader;
+import me.nickimpact.pixelmon.modelconverter.reforged.BMDWriter;
+import me.nickimpact.pixelmon.modelconverter.util.ByteBufferInputStream;
+import org.msgpack.core.MessagePack;
+import org.msgpack.core.MessagePacker;
+import org.msgpack.core.MessageUnpacker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Moves models directly between the binary formats of Reforged ({@code .bmd}) and Generations
+ * ({@code .smdx}), reading one into the studiomdl model and writing the other straight from it. Unlike
+ * decoding to text SMD with one translator and encoding with the other, no float is ever formatted or
+ * parsed as text, so values are carried across exactly. Animation ({@code .smd}) and {@code .pqc} files
+ * are shared by both mods, and are copied as is.
+ */
+public abstract class TranscodeTranslator implements Translator.Deserializer {
+
+    private final String source;
+    private final String result;
+
+    private TranscodeTranslator(String source, String result) {
+        this.source = source;
+        this.result = result;
+    }
+
+    protected abstract SMDFile read(InputStream input) throws Exception;
+
+    protected SMDFile read(ByteBuffer input) throws Exception {
+        return this.read(new ByteBufferInputStream(input));
+    }
+
+    protected abstract void write(SMDFile file, OutputStream output) throws Exception;
+
+    @Override
+    public List<String> getValidFileSuffixes() {
+        return Lists.newArrayList(this.source, ".smd", ".pqc");
+    }
+
+    @Override
+    public boolean isPassthrough(String name) {
+        return name.endsWith(".smd") || name.endsWith(".pqc");
+    }
+
+    @Override
+    public String getOutputName(String name) {
+        if(name.endsWith(this.source)) {
+            return name.replaceFirst("[.][^.]+$", "") + this.result;
+        }
+
+        return name;
+    }
+
+    @Override
+    public void translate(Asset asset, InputStream input, OutputStream output) throws Exception {
+        if(asset.getName().endsWith(this.source)) {
+            SMDFile file = this.read(input);
+            asset.markParsed();
+            this.write(file, output);
+        } else {
+            ByteStreams.copy(input, output);
+            output.flush();
+        }
+    }
+
+    @Override
+    public void translate(Asset asset, ByteBuffer input, OutputStream output) throws Exception {
+        if(asset.getName().endsWith(this.source)) {
+            SMDFile file = this.read(input);
+            asset.markParsed();
+            this.write(file, output);
+        } else {
+            this.translate(asset, new ByteBufferInputStream(input), output);
+        }
+    }
+
+    /**
+     * Transcodes Reforged models into Generations models.
+     */
+    public static class BMDToSMDX extends TranscodeTranslator {
+
+        public BMDToSMDX() {
+            super(".bmd", ".smdx");
+        }
+
+        @Override
+        protected SMDFile read(InputStream input) throws Exception {
+            return new BMDReader().read(input);
+        }
+
+        @Override
+        protected SMDFile read(ByteBuffer input) {
+            return new BMDReader().read(input);
+        }
+
+        @Override
+        protected void write(SMDFile file, OutputStream output) throws Exception {
+            MessagePacker packer = MessagePack.newDefaultPacker(new BufferedOutputStream(output));
+            new SMDBinaryWriter(ModelConverter.smdxVersion).write(file, packer);
+            packer.flush();
+        }
+    }
+
+    /**
+     * Transcodes Generations models into Reforged models.
+     */
+    public static class SMDXToBMD extends TranscodeTranslator {
+
+        public SMDXToBMD() {
+            super(".smdx", ".bmd");
+        }
+
+        @Override
+        protected SMDFile read(InputStream input) throws Exception {
+            MessageUnpacker unpacker = MessagePack.newDefaultUnpacker(new BufferedInputStream(input));
+            return new SMDBinaryReader().read(unpacker);
+        }
+
+        @Override
+        protected SMDFile read(ByteBuffer input) throws Exception {
+            return new SMDBinaryReader().read(input);
+        }
+
+        @Override
+        protected void write(SMDFile file, OutputStream output) throws Exception {
+            new BMDWriter().write(file, new DataOutputStream(new BufferedOutputStream(output)));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package me.nickimpact.pixelmon.modelconverter.ui;
+
+import me.nickimpact.pixelmon.modelconverter.ModelConverter;
+import me.nickimpact.pixelmon.modelconverter.Translator;
+import me.nickimpact.pixelmon.modelconverter.engine.AssetMetrics;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionException;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionJob;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionListener;
+import me.nickimpact.pixelmon.modelconverter.engine.ConversionMetrics;
+import me.nickimpact.pixelmon.modelconverter.util.Time;
+
+import javax.swing.*;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a conversion in the background, reporting its progress to the components of the interface.
+ */
+public class ConversionWorker extends SwingWorker<Void, Void> {
+
+    private final Translator translator;
+    private final File in;
+    private final File out;
+    private final JTextField status;
+    private final JLabel total;
+    private final JLabel processed;
+    private final JLabel successful;
+    private final JProgressBar progress;
+
+    public ConversionWorker(boolean mode, boolean state, boolean transcode, File in, File out, JTextField status, JLabel total, JLabel processed, JLabel successful, JProgressBar progress) {
+        this.translator = transcode ? ModelConverter.transcode(mode) : ModelConverter.parse(mode, state);
+        this.in = in;
+        this.out = out;
+        this.status = status;
+        this.total = total;
+        this.processed = processed;
+        this.successful = successful;
+        this.progress = progress;
+
+        ModelConverter.processed.set(0);
+        ModelConverter.successful.set(0);
+    }
+
+    @Override
+    protected Void doInBackground() throws Exception {
+        total.setText("Total: " + 0);
+        processed.setText("Processed: " + ModelConverter.processed.get());
+        successful.setText("Successful: " + ModelConverter.successful.get());
+        publish();
+
+        Instant start = Instant.now();
+        try {
+            AtomicInteger t = new AtomicInteger();
+            AtomicBoolean counting = new AtomicBoolean();
+            ConversionMetrics metrics = new ConversionMetrics();
+            try {
+                new ConversionJob(translator, in, out, ModelConverter.threads, ModelConverter.incremental).run(new ConversionListener() {
+                    @Override
+                    public void onDiscovered(int count) {
+                        t.set(count);
+
+                        // Files are found far faster than the label can be repainted, so only one update is queued at a time
+                        if(counting.compareAndSet(false, true)) {
+                            SwingUtilities.invokeLater(() -> {
+                                counting.set(false);
+                                total.setText("Total: " + t.get());
+                            });
+                        }
+                    }
+
+                    @Override
+                    public void onMeasured(AssetMetrics measured) {
+                        metrics.onMeasured(measured);
+                    }
+
+                    @Override
+                    public void onConverted(String source, long bytesIn, long bytesOut, boolean success) {
+                        SwingUtilities.invokeLater(() -> {
+                            processed.setText("Processed: " + ModelConverter.processed.get());
+                            successful.setText("Successful: " + ModelConverter.successful.get());
+                            progress.setValue((int) (ModelConverter.processed.get() / (double) t.get() * 100.0));
+                        });
+                    }
+                });
+            } catch (ConversionException e) {
+                status.setText("Failure parsing species: " + e.getSpecies());
+                e.printStackTrace();
+                return null;
+            } catch (IllegalArgumentException e) {
+                status.setText(e.getMessage());
+                return null;
+            }
+
+            Instant end = Instant.now();
+            if(ModelConverter.metrics != null) {
+                metrics.write(new File(ModelConverter.metrics).toPath(), 10);
+            }
+
+            Duration duration = Duration.between(start, end);
+            status.setText("Successfully parsed " + ModelConverter.successful.get() + " out of " + t.get() + " files! (Took " + new Time(duration.toMillis()) + ")");
+            publish();
+        } catch (Exception e) {
+            status.setText("Encountered a failure, consult the latest generated log file!");
+            File errors = new File("PMC-Errors");
+            errors.mkdirs();
+            File now = new File(errors, Instant.now() + ".log");
+            BufferedWriter writer = new BufferedWriter(new FileWriter(now));
+            try(StringWriter sw = new StringWriter(); PrintWriter pw = new PrintWriter(sw)) {
+                e.printStackTrace(pw);
+                pw.flush();
+                String[] trace = sw.toString().split("(\r)?\n");
+                for(String s : trace) {
+                    writer.write(s);
+                }
+                writer.flush();
+                writer.close();
+            }
+
+            publish();
+        }
+
+        return null;
+    }
+}
@@ -3,7 +3,6 @@ package me.nickimpact.pixelmon.modelconverter.ui;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
 import com.intellij.uiDesigner.core.Spacer;
-import me.nickimpact.pixelmon.modelconverter.ModelConverter;
 
 import javax.swing.*;
 import java.awt.*;
@@ -20,6 +19,7 @@ public class MCInterface extends JFrame {
     private JTextField inputLoc;
     private JRadioButton decode;
     private JRadioButton encode;
+    private JRadioButton transcode;
     private JTextField outLoc;
     private JButton outFileSelector;
     private JButton beginOperationButton;
@@ -48,11 +48,13 @@ public class MCInterface extends JFrame {
 
         this.state.add(this.decode);
         this.state.add(this.encode);
+        this.state.add(this.transcode);
 
         this.beginOperationButton.addActionListener(action -> {
-            ModelConverter.run(
+            new ConversionWorker(
                     this.mode.isSelected(this.reforged.getModel()),
                     this.state.isSelected(this.decode.getModel()),
+                    this.state.isSelected(this.transcode.getModel()),
                     Paths.get(this.inputLoc.getText()).toFile(),
                     Paths.get(this.outLoc.getText()).toFile(),
                     this.status,
@@ -60,7 +62,7 @@ public class MCInterface extends JFrame {
                     this.processed,
                     this.successful,
                     this.progressBar
-            );
+            ).execute();
         });
     }
 
@@ -155,6 +157,10 @@ public class MCInterface extends JFrame {
         encode.setLabel("Encode");
         encode.setText("Encode");
         main.add(encode, new GridConstraints(2, 1, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
+        transcode = new JRadioButton();
+        transcode.setText("Transcode");
+        transcode.setToolTipText("Convert the binary models of the selected mod directly into those of the other");
+        main.add(transcode, new GridConstraints(2, 2, 1, 1, GridConstraints.ANCHOR_WEST, GridConstraints.FILL_NONE, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, null, null, null, 0, false));
         inFileSelector = new JButton();
         inFileSelector.setText("Select Input Location");
         main.add(inFileSelector, new GridConstraints(0, 2, 1, 1, GridConstraints.ANCHOR_CENTER, GridConstraints.FILL_HORIZONTAL, GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW, GridConstraints.SIZEPOLICY_FIXED, new Dimension(60, -1), null, null, 0, false));
@@ -0,0 +1,232 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.formats;
+
+import me.nickimpact.pixelmon.modelconverter.corpus.ModelGenerator;
+import me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.studiomdl.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.msgpack.core.MessageBufferPacker;
+import org.msgpack.core.MessageFormatException;
+import org.msgpack.core.MessagePack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Writes models at every SMDX version and reads them back, both in full and through {@link SMDBinaryIndex},
+ * checking nothing is lost by comparing the text SMD each one is written as.
+ */
+public class SMDBinaryRoundTripTest {
+
+    private static final int[] VERSIONS = { SMDBinaryWriter.VERSION, SMDBinaryWriter.PACKED_VERSION, SMDBinaryWriter.INDEXED_VERSION };
+
+    /** A byte msgpack never uses, so anything decoded from bytes filled with it fails */
+    private static final byte NEVER_USED = (byte) 0xC1;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws IOException {
+        for(SMDFile model : models()) {
+            String expected = new SMDTextWriter().write(model);
+            for(int version : VERSIONS) {
+                byte[] data = write(model, version);
+                assertEquals("Version written", version, data[SMDBinaryWriter.MAGIC_BYTES.length]);
+
+                assertEquals("Version " + version + " from an unpacker", expected, new SMDTextWriter().write(new SMDBinaryReader().read(MessagePack.newDefaultUnpacker(data))));
+                assertEquals("Version " + version + " from a heap buffer", expected, new SMDTextWriter().write(new SMDBinaryReader().read(ByteBuffer.wrap(data))));
+
+                ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+                direct.put(data).flip();
+                assertEquals("Version " + version + " from a direct buffer", expected, new SMDTextWriter().write(new SMDBinaryReader().read(direct)));
+            }
+        }
+    }
+
+    @Test
+    public void specialValues() throws IOException {
+        SMDFile model = special();
+        String text = new SMDTextWriter().write(model);
+        assertTrue(text.contains("-0.000000"));
+        assertTrue(text.contains("NaN"));
+
+        for(int version : VERSIONS) {
+            SMDFile read = new SMDBinaryReader().read(ByteBuffer.wrap(write(model, version)));
+            assertEquals("Version " + version, text, new SMDTextWriter().write(read));
+
+            // Pools are deduped by bits, so -0 must not collapse into 0
+            TrianglesBlock.Vertex vertex = ((TrianglesBlock) read.blocks.get(2)).triangles.get(0).v1;
+            assertEquals(Float.floatToIntBits(-0f), Float.floatToIntBits(vertex.posX));
+            assertEquals(Float.floatToIntBits(0f), Float.floatToIntBits(vertex.posY));
+            assertTrue(Float.isNaN(vertex.posZ));
+        }
+    }
+
+    @Test
+    public void index() throws IOException {
+        for(SMDFile model : models()) {
+            for(int version : VERSIONS) {
+                byte[] data = write(model, version);
+                SMDFile full = new SMDBinaryReader().read(ByteBuffer.wrap(data));
+
+                // Decoded back to front, so no block relies on those before it having been decoded
+                SMDBinaryIndex index = SMDBinaryIndex.open(ByteBuffer.wrap(data));
+                assertEquals(version, index.getVersion());
+                assertEquals(full.blocks.size(), index.size());
+                for(int i = index.size() - 1; i >= 0; i--) {
+                    assertSame(full.blocks.get(i).getClass(), index.getType(i));
+                    assertEquals("Block " + i + " of version " + version, text(full.blocks.get(i)), text(index.getBlock(i)));
+                    assertSame(index.getBlock(i), index.getBlock(i));
+                }
+                assertEquals(new SMDTextWriter().write(model), new SMDTextWriter().write(index.toFile()));
+
+                Path file = this.folder.newFile().toPath();
+                Files.write(file, data);
+                assertEquals(new SMDTextWriter().write(model), new SMDTextWriter().write(SMDBinaryIndex.open(file).toFile()));
+            }
+        }
+    }
+
+    @Test
+    public void indexedBlocksDecodeOnDemand() throws IOException {
+        SMDFile model = models().get(0);
+        byte[] data = write(model, SMDBinaryWriter.INDEXED_VERSION);
+
+        SMDBinaryIndex index = SMDBinaryIndex.open(ByteBuffer.wrap(data));
+        NodesBlock nodes = index.getFirst(NodesBlock.class);
+        assertEquals(text(model.blocks.get(0)), text(nodes));
+
+        // Only the blocks asked for so far have been decoded, and the rest are read from the buffer when first asked for
+        Arrays.fill(data, NEVER_USED);
+        assertSame(nodes, index.getBlock(0));
+        for(int i = 1; i < index.size(); i++) {
+            try {
+                index.getBlock(i);
+                fail("Block " + i + " was decoded before it was asked for");
+            } catch (MessageFormatException expected) {
+                // Read from the overwritten buffer
+            }
+        }
+    }
+
+    @Test
+    public void unindexedVersionsDecodeOnOpen() throws IOException {
+        SMDFile model = models().get(0);
+        for(int version : new int[] { SMDBinaryWriter.VERSION, SMDBinaryWriter.PACKED_VERSION }) {
+            byte[] data = write(model, version);
+            SMDBinaryIndex index = SMDBinaryIndex.open(ByteBuffer.wrap(data));
+
+            // Nothing is left to read from the buffer once it has been opened
+            Arrays.fill(data, NEVER_USED);
+            assertEquals("Version " + version, new SMDTextWriter().write(model), new SMDTextWriter().write(index.toFile()));
+        }
+    }
+
+    @Test
+    public void unsupportedVersions() throws IOException {
+        for(int version : new int[] { 0, -1, 4, 127 }) {
+            try {
+                new SMDBinaryWriter(version);
+                fail("Wrote version " + version);
+            } catch (IllegalArgumentException expected) {
+                // Rejected
+            }
+        }
+
+        byte[] data = write(models().get(0), SMDBinaryWriter.VERSION);
+        for(byte version : new byte[] { 0, 4, 127 }) {
+            data[SMDBinaryWriter.MAGIC_BYTES.length] = version;
+            try {
+                new SMDBinaryReader().read(ByteBuffer.wrap(data));
+                fail("Read version " + version);
+            } catch (IllegalArgumentException expected) {
+                // Rejected
+            }
+        }
+
+        try {
+            new SMDBinaryReader().read(ByteBuffer.wrap(new byte[] { 'S', 'M', 'D' }));
+            fail("Read a file without its magic constant");
+        } catch (IllegalArgumentException expected) {
+            // Rejected
+        }
+    }
+
+    private static String text(SMDFileBlock block) {
+        SMDFile file = new SMDFile();
+        file.blocks.add(block);
+        return new SMDTextWriter().write(file);
+    }
+
+    static byte[] write(SMDFile model, int version) throws IOException {
+        MessageBufferPacker packer = MessagePack.newDefaultBufferPacker();
+        new SMDBinaryWriter(version).write(model, packer);
+        return packer.toByteArray();
+    }
+
+    /**
+     * @return Generated models and animations of a few shapes, along with models holding empty blocks
+     *         and values which do not survive being parsed from text
+     */
+    static List<SMDFile> models() {
+        List<SMDFile> models = new ArrayList<>();
+        ModelGenerator generator = ModelGenerator.builder().bones(12).keyframes(6).triangles(150).materials(3).links(3).vertexFrames(4).build();
+        models.add(generator.model(1));
+        models.add(generator.model(2));
+        models.add(generator.animation(3));
+        models.add(ModelGenerator.builder().bones(1).keyframes(1).triangles(1).materials(1).links(1).build().model(4));
+
+        SMDFile empty = new SMDFile();
+        empty.blocks.add(new NodesBlock());
+        empty.blocks.add(new SkeletonBlock());
+        empty.blocks.add(new TrianglesBlock());
+        empty.blocks.add(new VertexAnimationBlock());
+        models.add(empty);
+        models.add(new SMDFile());
+
+        models.add(special());
+        return models;
+    }
+
+    /**
+     * @return A model holding -0, NaN, the infinities and extreme floats in every kind of block
+     */
+    static SMDFile special() {
+        SMDFile model = ModelGenerator.builder().bones(4).keyframes(3).triangles(8).materials(2).links(2).vertexFrames(2).build().model(5);
+
+        TrianglesBlock.Vertex vertex = ((TrianglesBlock) model.blocks.get(2)).triangles.get(0).v1;
+        vertex.posX = -0f;
+        vertex.posY = 0f;
+        vertex.posZ = Float.NaN;
+        vertex.normX = Float.POSITIVE_INFINITY;
+        vertex.normY = Float.NEGATIVE_INFINITY;
+        vertex.normZ = Float.MIN_VALUE;
+        vertex.u = -0f;
+        vertex.v = Float.NaN;
+        vertex.links.get(0).weight = -0f;
+
+        // The same position again, but with the other zero
+        TrianglesBlock.Vertex other = ((TrianglesBlock) model.blocks.get(2)).triangles.get(0).v2;
+        other.posX = 0f;
+        other.posY = -0f;
+        other.posZ = Float.NaN;
+
+        SkeletonBlock.BoneState state = ((SkeletonBlock) model.blocks.get(1)).keyframes.get(1).states.get(0);
+        state.posX = -0f;
+        state.rotY = Float.NaN;
+        state.rotZ = -Float.MAX_VALUE;
+
+        VertexAnimationBlock.VertexState vertexState = ((VertexAnimationBlock) model.blocks.get(3)).keyframes.get(0).states.get(0);
+        vertexState.posX = -0f;
+        vertexState.normY = Float.NaN;
+        return model;
+    }
+}
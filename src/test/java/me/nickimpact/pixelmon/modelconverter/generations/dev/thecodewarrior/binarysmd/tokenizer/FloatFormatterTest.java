@@ -0,0 +1,89 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks every entry point of {@link FloatFormatter} against {@code String.format(Locale.ROOT, "%.<p>f")},
+ * for every supported precision.
+ */
+public class FloatFormatterTest {
+
+    private static final long SEED = 0x5EED_F0A7L;
+
+    @Test
+    public void zeroes() {
+        check(0f, -0f, Float.MIN_VALUE, -Float.MIN_VALUE, Float.MIN_NORMAL, 1e-10f, -1e-10f, 4e-10f, 5e-10f, 6e-10f);
+    }
+
+    @Test
+    public void special() {
+        check(Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, Float.MAX_VALUE, -Float.MAX_VALUE);
+    }
+
+    @Test
+    public void powersOfTen() {
+        // Rounding up carries into a new leading digit
+        check(9.9999995f, 9.999999f, 9.5f, 0.95f, 0.995f, 0.9999999f, 99.99999f, 999.9999f, 9999.9995f, 99999.99f, 999999.94f);
+        for(int exponent = -10; exponent <= 10; exponent++) {
+            float power = (float) Math.pow(10, exponent);
+            check(power, Math.nextUp(power), Math.nextDown(power), -power, power * 9.999999f);
+        }
+    }
+
+    @Test
+    public void halfway() {
+        check(0.5f, 1.5f, 2.5f, 0.125f, 0.375f, 0.0625f, 0.03125f, 1.0000005f, 0.0000005f, 0.00000005f, 2.675f, 1.005f);
+    }
+
+    @Test
+    public void fallback() {
+        // Values at or beyond 2^31 are left to the JDK
+        float limit = 0x1p31f;
+        check(limit, Math.nextDown(limit), Math.nextUp(limit), -limit, Math.nextDown(-limit), Math.nextUp(-limit));
+        check(2147483520f, 2147483647f, -2147483648f, 4294967296f, 1e18f, 9.223372e18f);
+    }
+
+    @Test
+    public void random() {
+        Random random = new Random(SEED);
+        for(int i = 0; i < 2000; i++) {
+            check(Float.intBitsToFloat(random.nextInt()));
+            check((random.nextFloat() - 0.5f) * (1 << random.nextInt(31)));
+        }
+    }
+
+    private static void check(float... values) {
+        byte[] buffer = new byte[FloatFormatter.MAX_LENGTH + 2];
+        StringBuilder builder = new StringBuilder();
+        for(float value : values) {
+            for(int precision = 0; precision <= FloatFormatter.MAX_PRECISION; precision++) {
+                String expected = String.format(Locale.ROOT, "%." + precision + "f", value);
+                String formatted = FloatFormatter.format(value, precision);
+
+                // Appended after existing text, which must be kept
+                builder.setLength(0);
+                builder.append('#');
+                String appended = FloatFormatter.append(builder, value, precision).toString();
+
+                // Written from an offset, leaving the bytes either side alone
+                buffer[0] = '#';
+                buffer[expected.length() + 1] = '#';
+                int end = FloatFormatter.write(value, precision, buffer, 1);
+                String written = new String(buffer, 0, Math.min(end + 1, buffer.length), StandardCharsets.US_ASCII);
+
+                if(!formatted.equals(expected) || !appended.equals("#" + expected) || !written.equals("#" + expected + "#")) {
+                    String description = value + " (" + Integer.toHexString(Float.floatToRawIntBits(value)) + ") at precision " + precision;
+                    assertEquals("Formatting " + description, expected, formatted);
+                    assertEquals("Appending " + description, "#" + expected, appended);
+                    assertEquals("Writing " + description, "#" + expected + "#", written);
+                }
+            }
+        }
+    }
+}
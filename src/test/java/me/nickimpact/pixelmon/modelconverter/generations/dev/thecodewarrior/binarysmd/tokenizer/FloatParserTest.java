@@ -0,0 +1,181 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Checks {@link FloatParser} against {@link Float#parseFloat(String)} bit for bit, through both the text
+ * and the byte entry points.
+ */
+public class FloatParserTest {
+
+    private static final long SEED = 0x5EED_F10A7L;
+
+    @Test
+    public void signs() {
+        check("0", "+0", "-0", "0.0", "-0.0", "-0e5", "+0e-5", "-000.000");
+        check("1.5", "+1.5", "-1.5", "+.5", "-.5", "5.", "-5.", "+5.e1");
+    }
+
+    @Test
+    public void exponents() {
+        for(int exponent = -25; exponent <= 25; exponent++) {
+            check("1e" + exponent, "-1e" + exponent, "1E" + exponent, "123456e" + exponent, "1.5e" + exponent, "16777215e" + exponent);
+        }
+        check("1e+10", "1e+11", "1.0e-10", "1.0e-11", "0.0000000001", "0.00000000001", "10000000000", "100000000000");
+        check("1e38", "3.4028235e38", "3.4028236e38", "1e39", "1e-1000", "1e1000", "1e0000000000000000000001");
+    }
+
+    @Test
+    public void significands() {
+        for(long significand = (1 << 24) - 4; significand <= (1 << 24) + 4; significand++) {
+            check(Long.toString(significand), "-" + significand, significand + "e-1", significand + "e1", significand + "e-5");
+            check(significand / 10 + "." + significand % 10, "0." + significand);
+        }
+
+        for(long significand = (1L << 53) - 4; significand <= (1L << 53) + 4; significand++) {
+            check(Long.toString(significand), significand + "e-10", significand + "e10");
+        }
+
+        // Either side of the 18 digits read by the fast path
+        check("123456789012345678", "1234567890123456789", "0.123456789012345678", "0.1234567890123456789");
+        check("1.00000000000000000000000000001", "00000000000000000000000000001.5");
+    }
+
+    @Test
+    public void subnormals() {
+        check("1e-45", "1.4e-45", "1.401298464324817e-45", "7e-46", "7.1e-46", "2.5e-45", "3e-45");
+        check("1.1754942e-38", "1.17549435e-38", "1.1754943508222875e-38", "1e-38", "5e-39", "1e-40");
+
+        Random random = new Random(SEED);
+        for(int i = 0; i < 20000; i++) {
+            float value = Float.intBitsToFloat(random.nextInt(0x800000));
+            check(Float.toString(value), new BigDecimal(value).round(new MathContext(9)).toString());
+        }
+    }
+
+    @Test
+    public void floatHalfway() {
+        // Exactly halfway between two floats, which rounding through a double must not double round
+        check("16777217", "16777219", "33554434", "33554438", "67108868", "-16777217", "1677721.7e1", "167772.17e2");
+        check("1.00000005960464477539062500", "0.500000029802322387695312500");
+
+        Random random = new Random(SEED);
+        for(int i = 0; i < 10000; i++) {
+            float value = Float.intBitsToFloat(random.nextInt(0x7F000000) + 0x00800000);
+            BigDecimal midpoint = new BigDecimal(value).add(new BigDecimal(Math.ulp(value)).divide(BigDecimal.valueOf(2)));
+            check(midpoint.toString());
+            for(int digits = 7; digits <= 18; digits++) {
+                check(midpoint.round(new MathContext(digits, RoundingMode.DOWN)).toString());
+                check(midpoint.round(new MathContext(digits, RoundingMode.UP)).toString());
+            }
+        }
+    }
+
+    @Test
+    public void doubleHalfway() {
+        // Exactly halfway between two doubles, so rounding to a double first must be left to the JDK
+        check("9007199254740993", "9007199254740995", "18014398509481986", "900719925474099.3e1");
+
+        Random random = new Random(SEED);
+        for(int i = 0; i < 20000; i++) {
+            double value = Double.longBitsToDouble((random.nextLong() & 0x7FFFFFFFFFFFFL) | (random.nextInt(60) + 1000L) << 52);
+            BigDecimal midpoint = new BigDecimal(value).add(new BigDecimal(Math.ulp(value)).divide(BigDecimal.valueOf(2)));
+            for(int digits = 15; digits <= 18; digits++) {
+                check(midpoint.round(new MathContext(digits, RoundingMode.DOWN)).toString());
+                check(midpoint.round(new MathContext(digits, RoundingMode.UP)).toString());
+            }
+        }
+    }
+
+    @Test
+    public void random() {
+        Random random = new Random(SEED);
+        StringBuilder text = new StringBuilder();
+        for(int i = 0; i < 50000; i++) {
+            float value = Float.intBitsToFloat(random.nextInt());
+            if(!Float.isNaN(value)) {
+                check(Float.toString(value));
+            }
+
+            // Numbers written the way SMD exporters write them, and with random digits and exponents
+            check(String.format(Locale.ROOT, "%.6f", (random.nextFloat() - 0.5f) * (1 << random.nextInt(30))));
+
+            text.setLength(0);
+            if(random.nextBoolean()) {
+                text.append(random.nextBoolean() ? '-' : '+');
+            }
+            int digits = random.nextInt(20) + 1;
+            int point = random.nextInt(digits + 1);
+            for(int d = 0; d < digits; d++) {
+                if(d == point) {
+                    text.append('.');
+                }
+                text.append((char) ('0' + random.nextInt(10)));
+            }
+            if(random.nextInt(3) == 0) {
+                text.append(random.nextBoolean() ? 'e' : 'E').append(random.nextInt(90) - 45);
+            }
+            check(text.toString());
+        }
+    }
+
+    @Test
+    public void malformed() {
+        String[] inputs = { "", "-", "+", ".", "-.", "e5", ".e5", "1e", "1e+", "1e-", "1.2.3", "1e5.0", "1e5e5",
+                "abc", "--1", "+-1", "1x", "1-", "0x", "1,5", "1 2", "- 1", "1e 5", "\"1\"", "NaNa", "Infinit" };
+        for(String input : inputs) {
+            malformed(input);
+        }
+    }
+
+    private static void malformed(String input) {
+        try {
+            Float.parseFloat(input);
+            fail("The JDK accepts `" + input + "`");
+        } catch (NumberFormatException expected) {
+            // The parser must agree
+        }
+
+        try {
+            FloatParser.parse(input);
+            fail("`" + input + "` parsed from text");
+        } catch (NumberFormatException expected) {
+            // Rejected as it should be
+        }
+
+        try {
+            byte[] data = ("#" + input + "#").getBytes(StandardCharsets.ISO_8859_1);
+            FloatParser.parse(data, 1, data.length - 1);
+            fail("`" + input + "` parsed from bytes");
+        } catch (NumberFormatException expected) {
+            // Rejected as it should be
+        }
+    }
+
+    private static void check(String... inputs) {
+        for(String input : inputs) {
+            int expected = Float.floatToRawIntBits(Float.parseFloat(input));
+            int text = Float.floatToRawIntBits(FloatParser.parse(input));
+            if(text != expected) {
+                assertEquals("Parsing `" + input + "` from text", expected, text);
+            }
+
+            // Surrounded by other bytes, which must not be read
+            byte[] data = ("7" + input + "7").getBytes(StandardCharsets.ISO_8859_1);
+            int bytes = Float.floatToRawIntBits(FloatParser.parse(data, 1, data.length - 1));
+            if(bytes != expected) {
+                assertEquals("Parsing `" + input + "` from bytes", expected, bytes);
+            }
+        }
+    }
+}
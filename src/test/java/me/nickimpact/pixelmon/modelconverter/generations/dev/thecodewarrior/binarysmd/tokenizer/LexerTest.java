@@ -0,0 +1,287 @@
+package me.nickimpact.pixelmon.modelconverter.generations.dev.thecodewarrior.binarysmd.tokenizer;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs every case against each way of feeding the {@link Lexer}: whole arrays, slices of arrays, buffers,
+ * and a channel which only hands over a few bytes per read into the smallest buffer the lexer allows, so
+ * lines are split across refills and longer lines grow the buffer.
+ */
+@RunWith(Parameterized.class)
+public class LexerTest {
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> sources() {
+        List<Object[]> sources = new ArrayList<>();
+        sources.add(source("array", Lexer::new));
+        sources.add(source("slice", data -> {
+            byte[] padded = new byte[data.length + 8];
+            Arrays.fill(padded, (byte) 'x');
+            System.arraycopy(data, 0, padded, 4, data.length);
+            return new Lexer(padded, 4, data.length);
+        }));
+        sources.add(source("heap buffer", data -> new Lexer(ByteBuffer.wrap(data))));
+        sources.add(source("direct buffer", data -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+            buffer.put(data).flip();
+            return new Lexer(buffer);
+        }));
+        sources.add(source("channel", data -> new Lexer(new TrickleChannel(data, 3), 1)));
+        return sources;
+    }
+
+    private static Object[] source(String name, Function<byte[], Lexer> factory) {
+        return new Object[] { name, factory };
+    }
+
+    private final Function<byte[], Lexer> factory;
+
+    public LexerTest(String name, Function<byte[], Lexer> factory) {
+        this.factory = factory;
+    }
+
+    @Test
+    public void crlf() {
+        assertEquals(Arrays.asList("a", "b", "\n", "c", "\n", "\n", "d", "\n"), this.tokens("a b\r\nc\r\n\r\nd\r\n"));
+    }
+
+    @Test
+    public void lastLine() {
+        // The last line is ended even without a line break, and trailing blank lines produce nothing
+        assertEquals(Arrays.asList("a", "b", "\n"), this.tokens("a b"));
+        assertEquals(Arrays.asList("a", "\n"), this.tokens("a\n\n\n  \t\n\r\n"));
+        assertEquals(Arrays.asList("\n", "\n", "a", "\n"), this.tokens("\n\r\na"));
+        assertEquals(Arrays.asList(), this.tokens(""));
+        assertEquals(Arrays.asList(), this.tokens(" \n\n "));
+    }
+
+    @Test
+    public void longLines() {
+        StringBuilder text = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for(int line = 0; line < 20; line++) {
+            for(int word = 0; word <= line * 3; word++) {
+                String token = "w" + line + "_" + word;
+                text.append(token).append(word % 2 == 0 ? " " : "\t");
+                expected.add(token);
+            }
+            text.append(line % 2 == 0 ? "\n" : "\r\n");
+            expected.add("\n");
+        }
+
+        assertEquals(expected, this.tokens(text.toString()));
+    }
+
+    @Test
+    public void quotedStrings() {
+        Lexer lexer = this.lexer("\"bone name\" \"\" 12 \"a  b\"\n");
+        assertEquals("bone name", lexer.nextQuotedString());
+        assertEquals("", lexer.nextQuotedString());
+        assertEquals(12, lexer.nextInt());
+        assertEquals("a  b", lexer.nextQuotedString());
+        lexer.expectLine();
+        assertTrue(lexer.eof());
+
+        // A stray quote is an ordinary word, and quotes never span lines
+        assertEquals(Arrays.asList("\"a", "b", "\n", "c\"", "\n"), this.tokens("\"a b\n c\"\n"));
+        assertEquals(Arrays.asList("a\"b", "\"", "\n"), this.tokens("a\"b \"\n"));
+
+        Lexer stray = this.lexer("\"open ended\n");
+        try {
+            stray.nextQuotedString();
+            fail("Read a quoted string without a closing quote");
+        } catch (ParseException expected) {
+            assertEquals(0, stray.getColumn());
+        }
+    }
+
+    @Test
+    public void restOfLine() {
+        Lexer lexer = this.lexer("  some material name.png  \nnext\n");
+        assertEquals("some material name.png", lexer.nextRestOfLine());
+        lexer.expectLine();
+        assertEquals("next", lexer.nextRestOfLine());
+    }
+
+    @Test
+    public void integers() {
+        Lexer lexer = this.lexer("2147483647 -2147483648 +7 -0 007\n");
+        assertEquals(Integer.MAX_VALUE, lexer.nextInt());
+        assertEquals(Integer.MIN_VALUE, lexer.nextInt());
+        assertEquals(7, lexer.nextInt());
+        assertEquals(0, lexer.nextInt());
+        assertEquals(7, lexer.nextInt());
+        lexer.expectLine();
+
+        for(String invalid : new String[] { "2147483648", "-2147483649", "99999999999", "-", "+", "1a", "1.0", "--1", "\"1\"" }) {
+            Lexer bad = this.lexer(invalid + " 5\n");
+            try {
+                bad.nextInt();
+                fail("Read `" + invalid + "` as an integer");
+            } catch (ParseException expected) {
+                // The token is not consumed
+                bad.skip();
+                assertEquals(5, bad.nextInt());
+            }
+        }
+    }
+
+    @Test
+    public void floats() {
+        Lexer lexer = this.lexer("1.5 -0.000001 3e2\n");
+        assertEquals(1.5f, lexer.nextFloat(), 0);
+        assertEquals(-0.000001f, lexer.nextFloat(), 0);
+        assertEquals(300f, lexer.nextFloat(), 0);
+        lexer.expectLine();
+
+        try {
+            this.lexer("1.5.5\n").nextFloat();
+            fail("Read `1.5.5` as a float");
+        } catch (ParseException expected) {
+            assertTrue(expected.getCause() instanceof NumberFormatException);
+        }
+    }
+
+    @Test
+    public void testLine() {
+        assertTrue(this.lexer("nodes\n").testLine("nodes", false));
+        assertTrue(this.lexer("nodes").testLine("nodes", false));
+        assertTrue(this.lexer("nodes  \t\r\n").testLine("nodes", false));
+        assertTrue(this.lexer("Nodes\n").testLine("nodes", true));
+        assertFalse(this.lexer("Nodes\n").testLine("nodes", false));
+
+        assertFalse(this.lexer(" nodes\n").testLine("nodes", false));
+        assertFalse(this.lexer("\tnodes\n").testLine("nodes", true));
+        assertFalse(this.lexer("nodes x\n").testLine("nodes", false));
+        assertFalse(this.lexer("end foo\n").testLine("end", false));
+        assertFalse(this.lexer("endless\n").testLine("end", false));
+        assertFalse(this.lexer("en\n").testLine("end", false));
+
+        // Only the first token of a line can be the whole line
+        Lexer lexer = this.lexer("a end\nend\n");
+        lexer.skip();
+        assertFalse(lexer.testLine("end", false));
+        lexer.skip();
+        lexer.expectLine();
+        assertTrue(lexer.testLine("end", false));
+
+        // The rest of the line is checked even when it lies past the end of the lexer's buffer
+        StringBuilder padding = new StringBuilder();
+        for(int i = 0; i < 40; i++) {
+            padding.append(' ');
+        }
+        assertTrue(this.lexer("end" + padding + "\nnext\n").testLine("end", false));
+        assertFalse(this.lexer("end" + padding + "x\n").testLine("end", false));
+    }
+
+    @Test
+    public void errorPositions() {
+        StringBuilder text = new StringBuilder("version 1\n\n");
+        for(int i = 0; i < 30; i++) {
+            text.append(i).append(' ');
+        }
+        text.append("oops\n");
+
+        Lexer lexer = this.lexer(text.toString());
+        lexer.expect("version");
+        assertEquals(1, lexer.nextInt());
+        lexer.expectLine();
+        lexer.expectLine();
+        for(int i = 0; i < 30; i++) {
+            assertEquals(i, lexer.nextInt());
+        }
+
+        int column = text.indexOf("oops") - text.indexOf("0 1 2");
+        try {
+            lexer.nextInt();
+            fail("Read `oops` as an integer");
+        } catch (ParseException e) {
+            assertEquals(2, lexer.getLine());
+            assertEquals(column, lexer.getColumn());
+            assertEquals("`oops` is not an integer at 3:" + (column + 1), e.getMessage());
+        }
+
+        try {
+            lexer.expectLine();
+            fail("Expected a line break in place of `oops`");
+        } catch (ParseException e) {
+            assertEquals("Expected end of line, found `oops` at 3:" + (column + 1), e.getMessage());
+        }
+
+        // Line breaks are reported at the end of their line, before any carriage return
+        Lexer crlf = this.lexer("ab\r\n");
+        crlf.skip();
+        assertTrue(crlf.atLine());
+        assertEquals(0, crlf.getLine());
+        assertEquals(2, crlf.getColumn());
+
+        crlf.expectLine();
+        try {
+            crlf.nextInt();
+            fail("Read past the end of the file");
+        } catch (ParseException e) {
+            assertEquals("Expected an integer, found end of file at 2:1", e.getMessage());
+        }
+    }
+
+    private Lexer lexer(String text) {
+        return this.factory.apply(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> tokens(String text) {
+        Lexer lexer = this.lexer(text);
+        List<String> tokens = new ArrayList<>();
+        while(!lexer.eof()) {
+            tokens.add(lexer.nextWord());
+        }
+
+        return tokens;
+    }
+
+    /**
+     * Hands over at most a few bytes per read.
+     */
+    private static class TrickleChannel implements ReadableByteChannel {
+
+        private final byte[] data;
+        private final int chunk;
+        private int position;
+
+        private TrickleChannel(byte[] data, int chunk) {
+            this.data = data;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if(this.position == this.data.length) {
+                return -1;
+            }
+
+            int count = Math.min(this.chunk, Math.min(dst.remaining(), this.data.length - this.position));
+            dst.put(this.data, this.position, count);
+            this.position += count;
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {}
+    }
+}